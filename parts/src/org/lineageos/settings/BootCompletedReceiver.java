@@ -22,28 +22,18 @@ import android.content.Context;
 import android.content.Intent;
 import android.content.IntentFilter;
 import android.hardware.display.DisplayManager;
-import android.os.IBinder;
-import android.os.UserHandle;
 import android.util.Log;
 import android.view.Display;
 import android.view.Display.HdrCapabilities;
 
-import org.lineageos.settings.display.ColorModeService;
-import org.lineageos.settings.doze.PocketService;
-import org.lineageos.settings.turbocharging.TurboChargingService;
-import org.lineageos.settings.touchsampling.TouchSamplingUtils;
-import org.lineageos.settings.touchsampling.TouchSamplingService;
-import org.lineageos.settings.touchsampling.TouchSamplingTileService;
 import org.lineageos.settings.soundcontrol.SoundControlUtils;
-import org.lineageos.settings.chargecontrol.ChargeControlService;
-import org.lineageos.settings.touch.DoubleTapService;
-import org.lineageos.settings.touch.SingleTapService;
-import org.lineageos.settings.touch.SoFodTouchService;
 
 public class BootCompletedReceiver extends BroadcastReceiver {
     private static final String TAG = "XiaomiParts";
     private static final boolean DEBUG = true;
 
+    private static final String WAIT_SURFACEFLINGER = "wait_surfaceflinger";
+
     @Override
     public void onReceive(final Context context, Intent intent) {
         if (DEBUG) Log.i(TAG, "Received intent: " + intent.getAction());
@@ -59,61 +49,35 @@ public class BootCompletedReceiver extends BroadcastReceiver {
 
     private void handleLockedBootCompleted(Context context) {
         if (DEBUG) Log.i(TAG, "Handling locked boot completed.");
+        final PendingResult pendingResult = goAsync();
         try {
-            // Start necessary services
-            startServices(context);
-
-            // Override HDR types
-            overrideHdrTypes(context);
-
-            // Restore touch sampling rate
-            TouchSamplingUtils.restoreSamplingValue(context);
-
+            buildBootTasks(context).start(pendingResult::finish);
         } catch (Exception e) {
             Log.e(TAG, "Error during locked boot completed", e);
+            pendingResult.finish();
         }
     }
 
+    private BootTaskGraph buildBootTasks(Context context) {
+        return new BootTaskGraph()
+                // Preconditions
+                .addServiceWait(WAIT_SURFACEFLINGER, "SurfaceFlinger")
+
+                // Host of all long-running features, DfWrapper replays to a late displayfeature
+                .addTask("parts_service", () -> PartsService.startService(context))
+
+                // Display
+                .addTask("hdr_types", () -> overrideHdrTypes(context), WAIT_SURFACEFLINGER)
+                .addTask("saturation", () -> Startup.applySavedSaturation(context),
+                        WAIT_SURFACEFLINGER);
+    }
+
     private void handleBootCompleted(Context context) {
         if (DEBUG) Log.i(TAG, "Handling boot completed.");
         SoundControlUtils.applyAll(context);
         // Add additional boot-completed actions if needed
     }
 
-    private void startServices(Context context) {
-        if (DEBUG) Log.i(TAG, "Starting services...");
-
-        // Start Color Mode Service
-        context.startServiceAsUser(new Intent(context, ColorModeService.class), UserHandle.CURRENT);
-
-        // Start Pocket Mode Service
-        PocketService.startService(context);
-
-        // Start TurboChargingService
-        Intent turboChargingIntent = new Intent(context, TurboChargingService.class);
-        context.startService(turboChargingIntent);
-
-        // Start Touch Sampling Tile Service
-        context.startServiceAsUser(new Intent(context, TouchSamplingTileService.class), UserHandle.CURRENT);
-
-        // Start TouchSamplingService to restore sampling rate
-        Intent touchSamplingServiceIntent = new Intent(context, TouchSamplingService.class);
-        context.startServiceAsUser(touchSamplingServiceIntent, UserHandle.CURRENT);
-
-        // Start Touch Sampling Service
-        context.startServiceAsUser(new Intent(context, TouchSamplingService.class), UserHandle.CURRENT);
-
-        // Start Charge Control Service
-        context.startServiceAsUser(new Intent(context, ChargeControlService.class), UserHandle.CURRENT);
-
-        // Start Touchfeatures service
-        context.startServiceAsUser(new Intent(context, DoubleTapService.class), UserHandle.CURRENT);
-        context.startServiceAsUser(new Intent(context, SoFodTouchService.class), UserHandle.CURRENT);
-
-        // Start Single Tap Service
-        context.startServiceAsUser(new Intent(context, SingleTapService.class), UserHandle.CURRENT);
-    }
-
     private void overrideHdrTypes(Context context) {
         try {
             final DisplayManager dm = context.getSystemService(DisplayManager.class);
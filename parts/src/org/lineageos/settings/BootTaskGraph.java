@@ -0,0 +1,239 @@
+/*
+ * Copyright (C) 2025 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lineageos.settings;
+
+import android.os.Binder;
+import android.os.IBinder;
+import android.os.IServiceCallback;
+import android.os.IServiceManager;
+import android.os.RemoteException;
+import android.os.ServiceManagerNative;
+import android.os.SystemClock;
+import android.util.Log;
+
+import com.android.internal.os.BinderInternal;
+
+import org.lineageos.settings.utils.HardwareExecutor;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs boot tasks concurrently while respecting declared dependencies.
+ *
+ * A task is either an action or a precondition waiting for a binder service
+ * to be registered. Each task starts as soon as all of its dependencies are
+ * done. Service waits give up after a timeout so that dependents still run.
+ */
+final class BootTaskGraph {
+    private static final String TAG = "BootTaskGraph";
+
+    private static final int THREADS = 3;
+    private static final long SERVICE_WAIT_TIMEOUT_MS = 10000;
+
+    private final LinkedHashMap<String, Task> mTasks = new LinkedHashMap<>();
+    private final ScheduledThreadPoolExecutor mExecutor =
+            new ScheduledThreadPoolExecutor(THREADS);
+
+    private int mRemaining;
+    private long mStartTime;
+    private Runnable mOnComplete;
+
+    BootTaskGraph() {
+        // Pending service wait timeouts must not outlive the graph
+        mExecutor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    private static final class Task {
+        final String name;
+        final Runnable action;
+        final String serviceName;
+        final String[] dependencies;
+        final ArrayList<Task> dependents = new ArrayList<>();
+        int pendingDependencies;
+        boolean done;
+        long startTime;
+        IServiceCallback serviceCallback;
+
+        Task(String name, Runnable action, String serviceName, String[] dependencies) {
+            this.name = name;
+            this.action = action;
+            this.serviceName = serviceName;
+            this.dependencies = dependencies;
+        }
+    }
+
+    /**
+     * Adds a task running the given action once all dependencies are done.
+     */
+    BootTaskGraph addTask(String name, Runnable action, String... dependencies) {
+        return add(new Task(name, action, null, dependencies));
+    }
+
+    /**
+     * Adds a precondition that is done once the given service is registered.
+     */
+    BootTaskGraph addServiceWait(String name, String serviceName) {
+        return add(new Task(name, null, serviceName, new String[0]));
+    }
+
+    private BootTaskGraph add(Task task) {
+        if (mTasks.put(task.name, task) != null) {
+            throw new IllegalArgumentException("Duplicate boot task " + task.name);
+        }
+        return this;
+    }
+
+    /**
+     * Starts all tasks.
+     *
+     * @param onComplete run on a worker thread once every task is done
+     */
+    void start(Runnable onComplete) {
+        for (Task task : mTasks.values()) {
+            for (String dependency : task.dependencies) {
+                final Task parent = mTasks.get(dependency);
+                if (parent == null) {
+                    throw new IllegalArgumentException(
+                            "Boot task " + task.name + " depends on unknown task " + dependency);
+                }
+                parent.dependents.add(task);
+                task.pendingDependencies++;
+            }
+        }
+
+        final ArrayList<Task> ready = new ArrayList<>();
+        synchronized (this) {
+            mOnComplete = onComplete;
+            mRemaining = mTasks.size();
+            mStartTime = SystemClock.elapsedRealtime();
+            for (Task task : mTasks.values()) {
+                if (task.pendingDependencies == 0) {
+                    ready.add(task);
+                }
+            }
+        }
+        for (Task task : ready) {
+            schedule(task);
+        }
+    }
+
+    private void schedule(Task task) {
+        task.startTime = SystemClock.elapsedRealtime();
+        if (task.serviceName != null) {
+            waitForService(task);
+            return;
+        }
+        mExecutor.execute(() -> {
+            try {
+                task.action.run();
+            } catch (RuntimeException e) {
+                Log.e(TAG, "Boot task " + task.name + " failed", e);
+            }
+            complete(task);
+        });
+    }
+
+    private void waitForService(Task task) {
+        mExecutor.schedule(() -> {
+            synchronized (this) {
+                if (task.done) return;
+            }
+            Log.w(TAG, "Timed out waiting for " + task.serviceName);
+            complete(task);
+        }, SERVICE_WAIT_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        final IServiceCallback callback = new IServiceCallback.Stub() {
+            @Override
+            public void onRegistration(String name, IBinder binder) {
+                complete(task);
+            }
+        };
+        synchronized (this) {
+            task.serviceCallback = callback;
+        }
+        try {
+            // Called back right away if the service is already registered
+            getServiceManager().registerForNotifications(task.serviceName, callback);
+        } catch (RemoteException | RuntimeException e) {
+            Log.e(TAG, "Failed to wait for " + task.serviceName, e);
+            synchronized (this) {
+                task.serviceCallback = null;
+            }
+            complete(task);
+        }
+    }
+
+    private static IServiceManager getServiceManager() {
+        // ServiceManager does not expose unregisterForNotifications
+        return ServiceManagerNative.asInterface(
+                Binder.allowBlocking(BinderInternal.getContextObject()));
+    }
+
+    private void unregisterServiceCallback(Task task, IServiceCallback callback) {
+        // Posted, registerForNotifications may call back before it returns
+        mExecutor.execute(() -> {
+            try {
+                getServiceManager().unregisterForNotifications(task.serviceName, callback);
+            } catch (RemoteException | RuntimeException e) {
+                Log.w(TAG, "Failed to stop waiting for " + task.serviceName, e);
+            }
+        });
+    }
+
+    private void complete(Task task) {
+        final ArrayList<Task> ready = new ArrayList<>();
+        final IServiceCallback callback;
+        final boolean finished;
+        synchronized (this) {
+            if (task.done) return;
+            task.done = true;
+            callback = task.serviceCallback;
+            task.serviceCallback = null;
+            final long now = SystemClock.elapsedRealtime();
+            Log.i(TAG, "Boot task " + task.name + " done in " + (now - task.startTime) + "ms");
+            for (Task dependent : task.dependents) {
+                if (--dependent.pendingDependencies == 0) {
+                    ready.add(dependent);
+                }
+            }
+            finished = --mRemaining == 0;
+            if (finished) {
+                Log.i(TAG, "Boot tasks done in " + (now - mStartTime) + "ms");
+            }
+        }
+        if (callback != null) {
+            unregisterServiceCallback(task, callback);
+        }
+        for (Task dependent : ready) {
+            schedule(dependent);
+        }
+        if (finished) {
+            // The executor runs in order, so this runs after the writes queued by the tasks
+            HardwareExecutor.execute(() -> {
+                final long applied = SystemClock.elapsedRealtime();
+                Log.i(TAG, "Boot settings applied in " + (applied - mStartTime)
+                        + "ms, " + applied + "ms since boot");
+            });
+            mExecutor.shutdown();
+            if (mOnComplete != null) {
+                mOnComplete.run();
+            }
+        }
+    }
+}
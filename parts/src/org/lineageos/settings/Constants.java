@@ -24,9 +24,25 @@ public class Constants {
     
     // Charge control
     public static final String KEY_CHARGE_CONTROL = "charge_control";
+    public static final String KEY_CHARGE_HISTORY = "charge_history";
     public static final String KEY_STOP_CHARGING = "stop_charging";
     public static final String KEY_RESUME_CHARGING = "resume_charging";
+    public static final String KEY_OPTIMIZED_CHARGING = "optimized_charging";
     public static final String NODE_STOP_CHARGING = "/sys/class/qcom-battery/input_suspend";
     public static final String DEFAULT_STOP_CHARGING = "100";
     public static final String DEFAULT_RESUME_CHARGING = "100";
+
+    // Turbo charging
+    public static final String KEY_TURBO_ENABLE = "turbo_enable";
+    public static final String KEY_TURBO_CURRENT = "turbo_current";
+    public static final String KEY_SPORTS_MODE = "sports_mode";
+    public static final String PROP_TURBO_CURRENT = "persist.sys.turbo_charge_current";
+    public static final String NODE_CHARGE_CURRENT = "/sys/class/power_supply/battery/constant_charge_current";
+    public static final String NODE_SPORTS_MODE = "/sys/class/qcom-battery/smart_chg";
+    public static final String NODE_USB_ONLINE = "/sys/class/power_supply/usb/online";
+    public static final String NODE_THERMAL_SCONFIG = "/sys/class/thermal/thermal_message/sconfig";
+    public static final String DEFAULT_TURBO_OFF_CURRENT = "6000000";
+    public static final String DEFAULT_TURBO_ON_CURRENT = "9750000";
+    public static final String SPORTS_MODE_ON = "9";
+    public static final String SPORTS_MODE_OFF = "8";
 }
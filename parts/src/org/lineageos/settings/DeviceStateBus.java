@@ -0,0 +1,232 @@
+/*
+ * Copyright (C) 2025 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lineageos.settings;
+
+import android.app.KeyguardManager;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.os.Handler;
+import android.os.HandlerExecutor;
+import android.os.PowerManager;
+import android.util.Log;
+
+import org.lineageos.settings.utils.HardwareExecutor;
+
+import java.util.ArrayList;
+
+/**
+ * Cached screen and power state shared by all parts features.
+ *
+ * A single receiver tracks interactive, dozing, keyguard and user-present
+ * state. The state is queried from the system once when the bus starts and
+ * then only updated from broadcasts and keyguard callbacks, so the getters
+ * never make binder calls. Transitions are published on the hardware looper,
+ * to listeners in the order they were added, and only when the state
+ * actually changed.
+ */
+public final class DeviceStateBus {
+    private static final String TAG = "DeviceStateBus";
+    private static final boolean DEBUG = false;
+
+    private static DeviceStateBus sInstance;
+
+    /**
+     * Receives state transitions on the hardware looper.
+     */
+    public interface Listener {
+        default void onScreenOn() {
+        }
+
+        default void onScreenOff() {
+        }
+
+        default void onUserPresent() {
+        }
+
+        default void onDozingChanged(boolean dozing) {
+        }
+
+        default void onKeyguardLockedChanged(boolean locked) {
+        }
+    }
+
+    private final Context mContext;
+    private final Handler mHandler;
+    private final KeyguardManager mKeyguardManager;
+
+    /* Only modified on the handler thread */
+    private final ArrayList<Listener> mListeners = new ArrayList<>();
+
+    private volatile boolean mInteractive;
+    private volatile boolean mDozing;
+    private volatile boolean mKeyguardLocked;
+    private volatile boolean mUserPresent;
+
+    private boolean mStarted;
+
+    private final BroadcastReceiver mReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            if (DEBUG) Log.d(TAG, "onReceive: " + intent.getAction());
+            switch (intent.getAction()) {
+                case Intent.ACTION_SCREEN_ON:
+                    setDozing(false);
+                    setInteractive(true);
+                    break;
+                case Intent.ACTION_SCREEN_OFF:
+                    mUserPresent = false;
+                    setInteractive(false);
+                    break;
+                case Intent.ACTION_USER_PRESENT:
+                    setUserPresent();
+                    break;
+                case Intent.ACTION_DREAMING_STARTED:
+                    // Doze is a dream shown while not interactive
+                    setDozing(!mInteractive);
+                    break;
+                case Intent.ACTION_DREAMING_STOPPED:
+                    setDozing(false);
+                    break;
+            }
+        }
+    };
+
+    private final KeyguardManager.KeyguardLockedStateListener mKeyguardListener =
+            locked -> setKeyguardLocked(locked);
+
+    private DeviceStateBus(Context context) {
+        mContext = context;
+        mHandler = HardwareExecutor.getHandler();
+        mKeyguardManager = context.getSystemService(KeyguardManager.class);
+    }
+
+    public static synchronized DeviceStateBus getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new DeviceStateBus(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    /**
+     * Seeds the state and starts tracking it. Must be called on the hardware looper.
+     */
+    public void start() {
+        if (mStarted) return;
+        mStarted = true;
+
+        mInteractive = mContext.getSystemService(PowerManager.class).isInteractive();
+        mKeyguardLocked = mKeyguardManager.isKeyguardLocked();
+        mUserPresent = mInteractive && !mKeyguardLocked;
+        mDozing = false;
+
+        final IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_SCREEN_ON);
+        filter.addAction(Intent.ACTION_SCREEN_OFF);
+        filter.addAction(Intent.ACTION_USER_PRESENT);
+        filter.addAction(Intent.ACTION_DREAMING_STARTED);
+        filter.addAction(Intent.ACTION_DREAMING_STOPPED);
+        mContext.registerReceiver(mReceiver, filter, null, mHandler);
+        mKeyguardManager.addKeyguardLockedStateListener(new HandlerExecutor(mHandler),
+                mKeyguardListener);
+    }
+
+    /**
+     * Stops tracking. Must be called on the hardware looper.
+     */
+    public void stop() {
+        if (!mStarted) return;
+        mStarted = false;
+        mContext.unregisterReceiver(mReceiver);
+        mKeyguardManager.removeKeyguardLockedStateListener(mKeyguardListener);
+    }
+
+    /**
+     * Adds a listener. Must be called on the hardware looper.
+     */
+    public void addListener(Listener listener) {
+        if (!mListeners.contains(listener)) {
+            mListeners.add(listener);
+        }
+    }
+
+    /**
+     * Removes a listener. Must be called on the hardware looper.
+     */
+    public void removeListener(Listener listener) {
+        mListeners.remove(listener);
+    }
+
+    public boolean isInteractive() {
+        return mInteractive;
+    }
+
+    public boolean isDozing() {
+        return mDozing;
+    }
+
+    public boolean isKeyguardLocked() {
+        return mKeyguardLocked;
+    }
+
+    public boolean isUserPresent() {
+        return mUserPresent;
+    }
+
+    private void setInteractive(boolean interactive) {
+        if (mInteractive == interactive) return;
+        mInteractive = interactive;
+        if (DEBUG) Log.d(TAG, "interactive=" + interactive);
+        for (int i = 0; i < mListeners.size(); i++) {
+            if (interactive) {
+                mListeners.get(i).onScreenOn();
+            } else {
+                mListeners.get(i).onScreenOff();
+            }
+        }
+    }
+
+    private void setUserPresent() {
+        if (mUserPresent) return;
+        mUserPresent = true;
+        // Unlocking always clears the keyguard, publish it first
+        setKeyguardLocked(false);
+        if (DEBUG) Log.d(TAG, "userPresent=true");
+        for (int i = 0; i < mListeners.size(); i++) {
+            mListeners.get(i).onUserPresent();
+        }
+    }
+
+    private void setDozing(boolean dozing) {
+        if (mDozing == dozing) return;
+        mDozing = dozing;
+        if (DEBUG) Log.d(TAG, "dozing=" + dozing);
+        for (int i = 0; i < mListeners.size(); i++) {
+            mListeners.get(i).onDozingChanged(dozing);
+        }
+    }
+
+    private void setKeyguardLocked(boolean locked) {
+        if (mKeyguardLocked == locked) return;
+        mKeyguardLocked = locked;
+        if (DEBUG) Log.d(TAG, "keyguardLocked=" + locked);
+        for (int i = 0; i < mListeners.size(); i++) {
+            mListeners.get(i).onKeyguardLockedChanged(locked);
+        }
+    }
+}
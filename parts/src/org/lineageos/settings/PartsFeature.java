@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2025 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lineageos.settings;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.UEventObserver;
+
+/**
+ * A long-running feature hosted by {@link PartsService}.
+ *
+ * All callbacks are invoked on the shared worker looper, which is also the
+ * looper of {@link #mHandler}. Screen and power state transitions come from
+ * {@link DeviceStateBus}, whose cached state is available as {@link #mDeviceState}.
+ */
+public abstract class PartsFeature implements DeviceStateBus.Listener {
+    protected final Context mContext;
+    protected final Handler mHandler;
+    protected final DeviceStateBus mDeviceState;
+
+    protected PartsFeature(Context context, Handler handler) {
+        mContext = context;
+        mHandler = handler;
+        mDeviceState = DeviceStateBus.getInstance(context);
+    }
+
+    /** Called once when the host starts. */
+    public void onStart() {
+    }
+
+    /** Called once when the host is destroyed. */
+    public void onStop() {
+    }
+
+    /** Called with every power_supply uevent, e.g. on charger or capacity changes. */
+    public void onPowerSupplyEvent(UEventObserver.UEvent event) {
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (C) 2025 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lineageos.settings;
+
+import android.app.Service;
+import android.content.Context;
+import android.content.Intent;
+import android.os.Handler;
+import android.os.IBinder;
+import android.os.UEventObserver;
+import android.os.UserHandle;
+import android.util.Log;
+
+import org.lineageos.settings.charging.ChargingFeature;
+import org.lineageos.settings.display.ColorModeFeature;
+import org.lineageos.settings.doze.PocketFeature;
+import org.lineageos.settings.touch.TouchGesturesFeature;
+import org.lineageos.settings.touchsampling.TouchSamplingFeature;
+import org.lineageos.settings.utils.HardwareExecutor;
+
+import java.util.ArrayList;
+
+/**
+ * Single sticky service hosting all long-running XiaomiParts features.
+ *
+ * The features share the {@link DeviceStateBus}, one power_supply uevent
+ * observer and the worker looper of {@link HardwareExecutor}.
+ */
+public class PartsService extends Service {
+    private static final String TAG = "PartsService";
+
+    private final ArrayList<PartsFeature> mFeatures = new ArrayList<>();
+    private Handler mHandler;
+    private DeviceStateBus mDeviceState;
+
+    private final UEventObserver mPowerSupplyObserver = new UEventObserver() {
+        @Override
+        public void onUEvent(UEvent event) {
+            mHandler.post(() -> {
+                for (PartsFeature feature : mFeatures) feature.onPowerSupplyEvent(event);
+            });
+        }
+    };
+
+    public static void startService(Context context) {
+        context.startServiceAsUser(new Intent(context, PartsService.class), UserHandle.CURRENT);
+    }
+
+    @Override
+    public void onCreate() {
+        super.onCreate();
+        Log.d(TAG, "Creating service");
+        mHandler = HardwareExecutor.getHandler();
+        mDeviceState = DeviceStateBus.getInstance(this);
+        mHandler.post(() -> {
+            mDeviceState.start();
+            mFeatures.add(new ColorModeFeature(this, mHandler));
+            mFeatures.add(new PocketFeature(this, mHandler));
+            mFeatures.add(new ChargingFeature(this, mHandler));
+            mFeatures.add(new TouchSamplingFeature(this, mHandler));
+            mFeatures.add(new TouchGesturesFeature(this, mHandler));
+            for (PartsFeature feature : mFeatures) {
+                feature.onStart();
+                mDeviceState.addListener(feature);
+            }
+
+            mPowerSupplyObserver.startObserving("SUBSYSTEM=power_supply");
+        });
+    }
+
+    @Override
+    public int onStartCommand(Intent intent, int flags, int startId) {
+        return START_STICKY;
+    }
+
+    @Override
+    public void onDestroy() {
+        Log.d(TAG, "Destroying service");
+        mHandler.post(() -> {
+            mPowerSupplyObserver.stopObserving();
+            for (PartsFeature feature : mFeatures) {
+                mDeviceState.removeListener(feature);
+                feature.onStop();
+            }
+            mFeatures.clear();
+            mDeviceState.stop();
+        });
+        super.onDestroy();
+    }
+
+    @Override
+    public IBinder onBind(Intent intent) {
+        return null;
+    }
+}
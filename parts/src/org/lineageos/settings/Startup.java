@@ -15,54 +15,41 @@
  */
 package org.lineageos.settings;
 
-import android.content.BroadcastReceiver;
 import android.content.Context;
-import android.content.Intent;
 import android.content.SharedPreferences;
-import android.os.Handler;
 import android.os.IBinder;
-import android.os.Looper;
 import android.os.Parcel;
 import android.os.RemoteException;
 import android.os.ServiceManager;
 import android.util.Log;
 import androidx.preference.PreferenceManager;
 
-import org.lineageos.settings.Constants;
-import org.lineageos.settings.saturation.SaturationFragment;
-import org.lineageos.settings.utils.ComponentUtils;
-import org.lineageos.settings.utils.FileUtils;
+import org.lineageos.settings.utils.HardwareExecutor;
 
-public class Startup extends BroadcastReceiver {
+public final class Startup {
 
     private static final String TAG = "Startup";
 
-    @Override
-    public void onReceive(Context context, Intent intent) {
-        final String action = intent.getAction();
-        Log.d(TAG, "onReceive called with action: " + action);
+    /** {@link HardwareExecutor} key of every saturation write. */
+    public static final String SATURATION_COMMAND_KEY = "saturation";
 
-        if (Intent.ACTION_BOOT_COMPLETED.equals(action) || 
-            Intent.ACTION_REBOOT.equals(action)) {
-
-            // Adding a delay before applying the saturation
-            new Handler(Looper.getMainLooper()).postDelayed(() -> {
-                Log.d(TAG, "Applying saved saturation setting...");
-                applySavedSaturation(context);
-            }, 5000); // Delay of 5 seconds
-        }
+    private Startup() {
+        // This class is not supposed to be instantiated
     }
 
-    private void applySavedSaturation(Context context) {
+    /**
+     * Applies the saved saturation. SurfaceFlinger must be up.
+     */
+    public static void applySavedSaturation(Context context) {
         SharedPreferences sharedPrefs = PreferenceManager.getDefaultSharedPreferences(context);
         int seekBarValue = sharedPrefs.getInt(Constants.KEY_SATURATION, 100);
         Log.d(TAG, "Retrieved seekBarValue: " + seekBarValue);
 
         // Apply the saved saturation value
-        applySaturation(seekBarValue);
+        HardwareExecutor.execute(SATURATION_COMMAND_KEY, () -> applySaturation(seekBarValue));
     }
 
-    private void applySaturation(int seekBarValue) {
+    private static void applySaturation(int seekBarValue) {
         Log.d(TAG, "Applying saturation: " + seekBarValue);
 
         float saturation;
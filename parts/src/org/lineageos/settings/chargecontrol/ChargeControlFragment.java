@@ -16,9 +16,10 @@
 
 package org.lineageos.settings.chargecontrol;
 
-import android.content.Context;
 import android.content.SharedPreferences;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
 import android.widget.CompoundButton;
 import android.widget.CompoundButton.OnCheckedChangeListener;
 import android.widget.Toast;
@@ -26,13 +27,16 @@ import android.widget.Toast;
 import androidx.preference.Preference;
 import androidx.preference.PreferenceFragmentCompat;
 import androidx.preference.PreferenceManager;
+import androidx.preference.SwitchPreferenceCompat;
 
 import com.android.settingslib.widget.MainSwitchPreference;
 
 import org.lineageos.settings.Constants;
 import org.lineageos.settings.CustomSeekBarPreference;
 import org.lineageos.settings.R;
+import org.lineageos.settings.charging.ChargeTelemetry;
 import org.lineageos.settings.utils.FileUtils;
+import org.lineageos.settings.utils.HardwareExecutor;
 
 public class ChargeControlFragment extends PreferenceFragmentCompat
         implements OnCheckedChangeListener, Preference.OnPreferenceChangeListener {
@@ -41,6 +45,10 @@ public class ChargeControlFragment extends PreferenceFragmentCompat
 
     private CustomSeekBarPreference mStopChargingPreference;
     private CustomSeekBarPreference mResumeChargingPreference;
+    private SwitchPreferenceCompat mOptimizedChargingPreference;
+    private ChargeHistoryPreference mHistoryPreference;
+
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
 
     @Override
     public void onCreatePreferences(Bundle savedInstanceState, String rootKey) {
@@ -68,6 +76,32 @@ public class ChargeControlFragment extends PreferenceFragmentCompat
                 Integer.parseInt(Constants.DEFAULT_RESUME_CHARGING)));
         mResumeChargingPreference.setOnPreferenceChangeListener(this);
         mResumeChargingPreference.setVisible(mChargeControlSwitch.isChecked());
+
+        mOptimizedChargingPreference = findPreference(Constants.KEY_OPTIMIZED_CHARGING);
+        mOptimizedChargingPreference.setVisible(mChargeControlSwitch.isChecked());
+
+        mHistoryPreference = findPreference(Constants.KEY_CHARGE_HISTORY);
+    }
+
+    @Override
+    public void onResume() {
+        super.onResume();
+        loadHistory();
+    }
+
+    private void loadHistory() {
+        final ChargeTelemetry telemetry = ChargeTelemetry.getInstance(getContext());
+        // Loading reads the history file, keep it off the main thread
+        HardwareExecutor.getHandler().post(() -> {
+            final ChargeTelemetry.Snapshot snapshot = telemetry.getSnapshot();
+            mMainHandler.post(() -> {
+                if (!isAdded()) return;
+                final boolean enabled = mChargeControlSwitch.isChecked();
+                mHistoryPreference.setHistory(snapshot,
+                        enabled ? mStopChargingPreference.getValue() : -1,
+                        enabled ? mResumeChargingPreference.getValue() : -1);
+            });
+        });
     }
 
     @Override
@@ -80,9 +114,7 @@ public class ChargeControlFragment extends PreferenceFragmentCompat
 
         mResumeChargingPreference.setVisible(isChecked);
 
-        if (!isChecked) {
-            FileUtils.writeLine(Constants.NODE_STOP_CHARGING, "0");
-        }
+        mOptimizedChargingPreference.setVisible(isChecked);
     }
 
     @Override
@@ -93,22 +125,6 @@ public class ChargeControlFragment extends PreferenceFragmentCompat
             sharedPrefs.edit().putInt(Constants.KEY_STOP_CHARGING, value).apply();
             mStopChargingPreference.refresh(value);
             Toast.makeText(getContext(), getString(R.string.stop_charging_set_to, value), Toast.LENGTH_SHORT).show();
-
-            boolean enabled = sharedPrefs.getBoolean(Constants.KEY_CHARGE_CONTROL, false);
-            if (enabled) {
-                android.content.IntentFilter ifilter = new android.content.IntentFilter(android.content.Intent.ACTION_BATTERY_CHANGED);
-                android.content.Intent batteryStatus = getContext().registerReceiver(null, ifilter);
-                if (batteryStatus != null) {
-                    int level = batteryStatus.getIntExtra(android.os.BatteryManager.EXTRA_LEVEL, -1);
-                    int scale = batteryStatus.getIntExtra(android.os.BatteryManager.EXTRA_SCALE, 100);
-                    int percent = (int) ((level / (float) scale) * 100);
-                    if (percent >= value) {
-                        FileUtils.writeLine(Constants.NODE_STOP_CHARGING, "1");
-                    } else {
-                        FileUtils.writeLine(Constants.NODE_STOP_CHARGING, "0");
-                    }
-                }
-            }
             return true;
         } else if (preference == mResumeChargingPreference) {
             SharedPreferences sharedPrefs = PreferenceManager.getDefaultSharedPreferences(getContext());
@@ -120,31 +136,4 @@ public class ChargeControlFragment extends PreferenceFragmentCompat
         }
         return false;
     }
-
-    public static void restoreStopChargingSetting(Context context) {
-        SharedPreferences sharedPrefs = PreferenceManager.getDefaultSharedPreferences(context);
-        boolean chargeControlEnabled = sharedPrefs.getBoolean(Constants.KEY_CHARGE_CONTROL, true);
-
-        if (chargeControlEnabled && FileUtils.isFileWritable(Constants.NODE_STOP_CHARGING)) {
-            int stopValue = sharedPrefs.getInt(Constants.KEY_STOP_CHARGING,
-                    Integer.parseInt(FileUtils.readOneLine(Constants.NODE_STOP_CHARGING) != null ? FileUtils.readOneLine(Constants.NODE_STOP_CHARGING) : Constants.DEFAULT_STOP_CHARGING));
-            int resumeValue = sharedPrefs.getInt(Constants.KEY_RESUME_CHARGING,
-                    Integer.parseInt(Constants.DEFAULT_RESUME_CHARGING));
-            
-            // Check current battery level and apply appropriate setting
-            android.content.IntentFilter ifilter = new android.content.IntentFilter(android.content.Intent.ACTION_BATTERY_CHANGED);
-            android.content.Intent batteryStatus = context.registerReceiver(null, ifilter);
-            if (batteryStatus != null) {
-                int level = batteryStatus.getIntExtra(android.os.BatteryManager.EXTRA_LEVEL, -1);
-                int scale = batteryStatus.getIntExtra(android.os.BatteryManager.EXTRA_SCALE, 100);
-                int percent = (int) ((level / (float) scale) * 100);
-                
-                if (percent >= stopValue) {
-                    FileUtils.writeLine(Constants.NODE_STOP_CHARGING, "1");
-                } else if (percent <= resumeValue) {
-                    FileUtils.writeLine(Constants.NODE_STOP_CHARGING, "0");
-                }
-            }
-        }
-    }
 }
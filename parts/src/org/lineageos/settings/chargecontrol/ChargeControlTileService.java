@@ -16,15 +16,13 @@
 
 package org.lineageos.settings.chargecontrol;
 
-import android.content.SharedPreferences;
 import android.graphics.drawable.Icon;
 import android.service.quicksettings.Tile;
 import android.service.quicksettings.TileService;
 
-import androidx.preference.PreferenceManager;
-
-import org.lineageos.settings.Constants;
 import org.lineageos.settings.R;
+import org.lineageos.settings.charging.ChargingPolicy;
+import org.lineageos.settings.charging.ChargingSettings;
 
 public class ChargeControlTileService extends TileService {
     @Override
@@ -35,22 +33,19 @@ public class ChargeControlTileService extends TileService {
 
     @Override
     public void onClick() {
-        SharedPreferences prefs = PreferenceManager.getDefaultSharedPreferences(this);
-        boolean enabled = prefs.getBoolean(Constants.KEY_CHARGE_CONTROL, false);
-        prefs.edit().putBoolean(Constants.KEY_CHARGE_CONTROL, !enabled).apply();
+        ChargingPolicy policy = ChargingPolicy.getInstance(this);
+        policy.setChargeControlEnabled(!policy.isChargeControlEnabled());
         updateTile();
     }
 
     private void updateTile() {
         Tile tile = getQsTile();
         if (tile == null) return;
-        SharedPreferences prefs = PreferenceManager.getDefaultSharedPreferences(this);
-        boolean enabled = prefs.getBoolean(Constants.KEY_CHARGE_CONTROL, false);
-        int stopValue = prefs.getInt(Constants.KEY_STOP_CHARGING, 100);
-        int resumeValue = prefs.getInt(Constants.KEY_RESUME_CHARGING, 100);
+        ChargingSettings settings = ChargingPolicy.getInstance(this).getSettings();
         tile.setLabel(getString(R.string.charge_control_tile_label));
-        if (enabled) {
-            tile.setSubtitle(getString(R.string.charge_control_tile_subtitle, stopValue, resumeValue));
+        if (settings.chargeControlEnabled) {
+            tile.setSubtitle(getString(R.string.charge_control_tile_subtitle,
+                    settings.stopLevel, settings.resumeLevel));
             tile.setState(Tile.STATE_ACTIVE);
             tile.setIcon(Icon.createWithResource(this, R.drawable.ic_battery_charging_60));
         } else {
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2025 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lineageos.settings.chargecontrol;
+
+import android.content.Context;
+import android.util.AttributeSet;
+
+import androidx.preference.Preference;
+import androidx.preference.PreferenceViewHolder;
+
+import org.lineageos.settings.R;
+import org.lineageos.settings.charging.ChargeTelemetry;
+
+public class ChargeHistoryPreference extends Preference {
+
+    private ChargeTelemetry.Snapshot mSnapshot;
+    private int mStopLevel = -1;
+    private int mResumeLevel = -1;
+
+    public ChargeHistoryPreference(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        setLayoutResource(R.layout.charge_history_layout);
+        setSelectable(false);
+    }
+
+    @Override
+    public void onBindViewHolder(PreferenceViewHolder holder) {
+        super.onBindViewHolder(holder);
+        ChargeHistoryView view = (ChargeHistoryView) holder.findViewById(R.id.charge_history);
+        if (view != null) {
+            view.setHistory(mSnapshot, mStopLevel, mResumeLevel);
+        }
+    }
+
+    public void setHistory(ChargeTelemetry.Snapshot snapshot, int stopLevel, int resumeLevel) {
+        mSnapshot = snapshot;
+        mStopLevel = stopLevel;
+        mResumeLevel = resumeLevel;
+
+        if (snapshot == null || snapshot.size == 0) {
+            setSummary(R.string.charge_history_empty);
+        } else {
+            final int last = snapshot.size - 1;
+            int actions = 0;
+            for (int i = 0; i < snapshot.size; i++) {
+                final int action = snapshot.getAction(i);
+                if (action == ChargeTelemetry.ACTION_SUSPEND
+                        || action == ChargeTelemetry.ACTION_RESUME) {
+                    actions++;
+                }
+            }
+            setSummary(getContext().getString(R.string.charge_history_summary,
+                    snapshot.level[last], snapshot.temp[last] / 10f,
+                    snapshot.current[last] / 1000, snapshot.voltage[last] / 1000000f,
+                    actions));
+        }
+        notifyChanged();
+    }
+}
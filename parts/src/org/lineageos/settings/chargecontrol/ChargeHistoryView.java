@@ -0,0 +1,121 @@
+/*
+ * Copyright (C) 2025 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lineageos.settings.chargecontrol;
+
+import android.content.Context;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.DashPathEffect;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.util.AttributeSet;
+import android.view.View;
+
+import org.lineageos.settings.charging.ChargeTelemetry;
+
+/**
+ * Plots the battery level of the last day from a telemetry snapshot.
+ *
+ * Spans with charging suspended are shaded and the stop and resume levels
+ * are drawn as dashed lines.
+ */
+public class ChargeHistoryView extends View {
+    private static final long WINDOW_MS = 24 * 60 * 60 * 1000;
+
+    private final Paint mLevelPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Paint mSuspendedPaint = new Paint();
+    private final Paint mThresholdPaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    private final Path mPath = new Path();
+
+    private ChargeTelemetry.Snapshot mSnapshot;
+    private int mStopLevel = -1;
+    private int mResumeLevel = -1;
+
+    public ChargeHistoryView(Context context, AttributeSet attrs) {
+        super(context, attrs);
+        final TypedArray a = context.obtainStyledAttributes(new int[] {
+                android.R.attr.colorAccent, android.R.attr.textColorSecondary });
+        final int accent = a.getColor(0, 0xff3ddc84);
+        final int secondary = a.getColor(1, 0xff888888);
+        a.recycle();
+
+        final float density = getResources().getDisplayMetrics().density;
+        mLevelPaint.setColor(accent);
+        mLevelPaint.setStyle(Paint.Style.STROKE);
+        mLevelPaint.setStrokeWidth(2 * density);
+        mSuspendedPaint.setColor(accent);
+        mSuspendedPaint.setAlpha(0x30);
+        mThresholdPaint.setColor(secondary);
+        mThresholdPaint.setStyle(Paint.Style.STROKE);
+        mThresholdPaint.setStrokeWidth(density);
+        mThresholdPaint.setPathEffect(new DashPathEffect(new float[] { 4 * density, 4 * density }, 0));
+    }
+
+    public void setHistory(ChargeTelemetry.Snapshot snapshot, int stopLevel, int resumeLevel) {
+        mSnapshot = snapshot;
+        mStopLevel = stopLevel;
+        mResumeLevel = resumeLevel;
+        invalidate();
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        final float left = getPaddingLeft();
+        final float top = getPaddingTop();
+        final float width = getWidth() - getPaddingLeft() - getPaddingRight();
+        final float height = getHeight() - getPaddingTop() - getPaddingBottom();
+
+        if (mStopLevel >= 0) {
+            drawThreshold(canvas, mStopLevel, left, top, width, height);
+        }
+        if (mResumeLevel >= 0 && mResumeLevel != mStopLevel) {
+            drawThreshold(canvas, mResumeLevel, left, top, width, height);
+        }
+
+        final ChargeTelemetry.Snapshot s = mSnapshot;
+        if (s == null || s.size == 0) return;
+
+        final long end = s.time[s.size - 1];
+        final long start = end - WINDOW_MS;
+        int first = 0;
+        while (first < s.size - 1 && s.time[first + 1] < start) {
+            first++;
+        }
+
+        mPath.rewind();
+        for (int i = first; i < s.size; i++) {
+            final float x = left + width * Math.max(0, s.time[i] - start) / WINDOW_MS;
+            final float y = top + height * (100 - s.level[i]) / 100f;
+            if (i == first) {
+                mPath.moveTo(x, y);
+            } else {
+                mPath.lineTo(x, y);
+            }
+            if (s.isSuspended(i) && i + 1 < s.size) {
+                final float nextX = left + width * (s.time[i + 1] - start) / WINDOW_MS;
+                canvas.drawRect(x, top, nextX, top + height, mSuspendedPaint);
+            }
+        }
+        canvas.drawPath(mPath, mLevelPaint);
+    }
+
+    private void drawThreshold(Canvas canvas, int level, float left, float top,
+            float width, float height) {
+        final float y = top + height * (100 - level) / 100f;
+        canvas.drawLine(left, y, left + width, y, mThresholdPaint);
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (C) 2025 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lineageos.settings.charging;
+
+/**
+ * Estimates how long the battery takes to charge one percent.
+ *
+ * Only full one percent steps taken while charging are measured, the partial
+ * step after plugging in or resuming is skipped. The time per percent grows
+ * as the battery fills up, so the estimate for the next step never falls
+ * below the last measured one.
+ */
+final class ChargeRateEstimator {
+    /* Weight of the newest step in the running average, in 1/4 */
+    private static final int WEIGHT_NEW = 2;
+
+    private int mLastLevel = -1;
+    private long mLastTime;
+    private long mLastInterval;
+    private long mAverageInterval;
+
+    /**
+     * Forgets the current step, e.g. when the charger is connected or
+     * charging is suspended or resumed. Measured steps are kept.
+     */
+    void invalidate() {
+        mLastLevel = -1;
+    }
+
+    /**
+     * Forgets everything, e.g. when the charger is disconnected.
+     */
+    void reset() {
+        mLastLevel = -1;
+        mLastInterval = 0;
+        mAverageInterval = 0;
+    }
+
+    /**
+     * Feeds a battery level change.
+     *
+     * @param now elapsed realtime in milliseconds
+     * @param charging whether the battery was charging during the step
+     */
+    void onLevelChanged(int level, long now, boolean charging) {
+        if (!charging) {
+            invalidate();
+            return;
+        }
+        if (mLastLevel >= 0 && level == mLastLevel + 1) {
+            mLastInterval = now - mLastTime;
+            mAverageInterval = mAverageInterval == 0 ? mLastInterval
+                    : (mAverageInterval * (4 - WEIGHT_NEW) + mLastInterval * WEIGHT_NEW) / 4;
+        }
+        mLastLevel = level;
+        mLastTime = now;
+    }
+
+    /**
+     * Returns the average time per percent in milliseconds, or 0 if no step
+     * was measured yet.
+     */
+    long getAverageInterval() {
+        return mAverageInterval;
+    }
+
+    /**
+     * Returns the elapsed realtime at which the battery is expected to reach
+     * the level after the current one, or -1 if there is no estimate yet.
+     */
+    long predictNextLevelTime() {
+        if (mLastLevel < 0 || mAverageInterval == 0) return -1;
+        return mLastTime + Math.max(mAverageInterval, mLastInterval);
+    }
+}
@@ -0,0 +1,258 @@
+/*
+ * Copyright (C) 2025 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lineageos.settings.charging;
+
+import android.content.Context;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed size history of battery and charging samples.
+ *
+ * Samples live in a ring buffer of primitive arrays and are appended to a
+ * binary file of fixed size records as they are taken. The file is compacted
+ * back to the ring contents once it holds twice as many records. Recording
+ * happens on the hardware thread, snapshots may be taken from any thread.
+ *
+ * The file is an {@link AtomicFile}. Compaction replaces it atomically, and
+ * reads go through it so that a compaction interrupted half way is discarded.
+ * Records are appended in place, a torn record at the end is dropped on load.
+ */
+public final class ChargeTelemetry {
+    private static final String TAG = "ChargeTelemetry";
+
+    /** About a week of samples at the maximum sample interval. */
+    public static final int CAPACITY = 2016;
+
+    public static final int ACTION_NONE = 0;
+    public static final int ACTION_SUSPEND = 1;
+    public static final int ACTION_RESUME = 2;
+    public static final int ACTION_THERMAL = 3;
+
+    private static final int FLAG_CHARGER_ONLINE = 1;
+    private static final int FLAG_SUSPENDED = 1 << 1;
+    private static final int ACTION_SHIFT = 2;
+    private static final int ACTION_MASK = 0x3;
+
+    /* Sample at least this often, even if nothing changed */
+    private static final long SAMPLE_INTERVAL_MS = 5 * 60 * 1000;
+
+    private static final String FILE_NAME = "charge_telemetry.bin";
+    /* time (8), level (1), flags (1), temperature (2), current (4), voltage (4) */
+    private static final int RECORD_SIZE = 20;
+
+    private static ChargeTelemetry sInstance;
+
+    private final AtomicFile mFile;
+
+    private final long[] mTime = new long[CAPACITY];
+    private final byte[] mLevel = new byte[CAPACITY];
+    private final byte[] mFlags = new byte[CAPACITY];
+    private final short[] mTemp = new short[CAPACITY];
+    private final int[] mCurrent = new int[CAPACITY];
+    private final int[] mVoltage = new int[CAPACITY];
+    private int mHead;
+    private int mSize;
+
+    private final ByteBuffer mRecord = ByteBuffer.allocate(RECORD_SIZE);
+    private FileOutputStream mOutput;
+    private int mFileRecords;
+    private boolean mLoaded;
+
+    /**
+     * Copy of the history, oldest sample first.
+     */
+    public static final class Snapshot {
+        public final int size;
+        /** Wall clock time, in ms. */
+        public final long[] time;
+        /** Battery level, in percent. */
+        public final byte[] level;
+        /** Battery temperature, in tenths of a degree Celsius. */
+        public final short[] temp;
+        /** Battery current, in uA. */
+        public final int[] current;
+        /** Battery voltage, in uV. */
+        public final int[] voltage;
+        private final byte[] flags;
+
+        Snapshot(int size) {
+            this.size = size;
+            time = new long[size];
+            level = new byte[size];
+            temp = new short[size];
+            current = new int[size];
+            voltage = new int[size];
+            flags = new byte[size];
+        }
+
+        public boolean isChargerOnline(int i) {
+            return (flags[i] & FLAG_CHARGER_ONLINE) != 0;
+        }
+
+        public boolean isSuspended(int i) {
+            return (flags[i] & FLAG_SUSPENDED) != 0;
+        }
+
+        /** Returns the charge control action taken with the sample, if any. */
+        public int getAction(int i) {
+            return (flags[i] >> ACTION_SHIFT) & ACTION_MASK;
+        }
+    }
+
+    private ChargeTelemetry(Context context) {
+        mFile = new AtomicFile(new File(context.getFilesDir(), FILE_NAME));
+    }
+
+    public static synchronized ChargeTelemetry getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new ChargeTelemetry(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    /**
+     * Records a sample if the level, charger or suspend state changed since the
+     * last one, if an action is given or if the last one is old enough.
+     */
+    public synchronized void sample(int level, int current, int voltage, int temp,
+            boolean chargerOnline, boolean suspended, int action, long now) {
+        ensureLoaded();
+        final int flags = (chargerOnline ? FLAG_CHARGER_ONLINE : 0)
+                | (suspended ? FLAG_SUSPENDED : 0)
+                | ((action & ACTION_MASK) << ACTION_SHIFT);
+        if (action == ACTION_NONE && mSize > 0) {
+            final int last = (mHead + CAPACITY - 1) % CAPACITY;
+            if (mLevel[last] == level && mFlags[last] == flags
+                    && now - mTime[last] < SAMPLE_INTERVAL_MS) {
+                return;
+            }
+        }
+        put(now, (byte) level, (byte) flags, (short) temp, current, voltage);
+        append(mHead == 0 ? CAPACITY - 1 : mHead - 1);
+    }
+
+    public synchronized Snapshot getSnapshot() {
+        ensureLoaded();
+        final Snapshot snapshot = new Snapshot(mSize);
+        int index = (mHead + CAPACITY - mSize) % CAPACITY;
+        for (int i = 0; i < mSize; i++) {
+            snapshot.time[i] = mTime[index];
+            snapshot.level[i] = mLevel[index];
+            snapshot.temp[i] = mTemp[index];
+            snapshot.current[i] = mCurrent[index];
+            snapshot.voltage[i] = mVoltage[index];
+            snapshot.flags[i] = mFlags[index];
+            index = (index + 1) % CAPACITY;
+        }
+        return snapshot;
+    }
+
+    private void put(long time, byte level, byte flags, short temp, int current, int voltage) {
+        mTime[mHead] = time;
+        mLevel[mHead] = level;
+        mFlags[mHead] = flags;
+        mTemp[mHead] = temp;
+        mCurrent[mHead] = current;
+        mVoltage[mHead] = voltage;
+        mHead = (mHead + 1) % CAPACITY;
+        if (mSize < CAPACITY) mSize++;
+    }
+
+    private void ensureLoaded() {
+        if (mLoaded) return;
+        mLoaded = true;
+        if (!mFile.exists()) return;
+        try {
+            final ByteBuffer data = ByteBuffer.wrap(mFile.readFully());
+            // A trailing partial record from an interrupted write is dropped
+            mFileRecords = data.capacity() / RECORD_SIZE;
+            final int first = Math.max(0, mFileRecords - CAPACITY);
+            data.position(first * RECORD_SIZE);
+            for (int i = first; i < mFileRecords; i++) {
+                put(data.getLong(), data.get(), data.get(), data.getShort(),
+                        data.getInt(), data.getInt());
+            }
+            if (data.capacity() % RECORD_SIZE != 0) {
+                compact();
+            }
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to load " + mFile.getBaseFile(), e);
+        }
+    }
+
+    private void append(int index) {
+        if (mFileRecords >= 2 * CAPACITY) {
+            compact();
+            return;
+        }
+        mRecord.clear();
+        mRecord.putLong(mTime[index]).put(mLevel[index]).put(mFlags[index])
+                .putShort(mTemp[index]).putInt(mCurrent[index]).putInt(mVoltage[index]);
+        try {
+            if (mOutput == null) {
+                // AtomicFile has no append, records go straight to the base file
+                mOutput = new FileOutputStream(mFile.getBaseFile(), true);
+            }
+            mOutput.write(mRecord.array(), 0, RECORD_SIZE);
+            mFileRecords++;
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to append to " + mFile.getBaseFile(), e);
+            closeOutput();
+        }
+    }
+
+    /**
+     * Replaces the file with exactly the records in the ring.
+     */
+    private void compact() {
+        closeOutput();
+        final ByteBuffer data = ByteBuffer.allocate(mSize * RECORD_SIZE);
+        int index = (mHead + CAPACITY - mSize) % CAPACITY;
+        for (int i = 0; i < mSize; i++) {
+            data.putLong(mTime[index]).put(mLevel[index]).put(mFlags[index])
+                    .putShort(mTemp[index]).putInt(mCurrent[index]).putInt(mVoltage[index]);
+            index = (index + 1) % CAPACITY;
+        }
+        FileOutputStream out = null;
+        try {
+            out = mFile.startWrite();
+            out.write(data.array());
+            mFile.finishWrite(out);
+            mFileRecords = mSize;
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to compact " + mFile.getBaseFile(), e);
+            mFile.failWrite(out);
+        }
+    }
+
+    private void closeOutput() {
+        if (mOutput != null) {
+            try {
+                mOutput.close();
+            } catch (IOException e) {
+                // Ignored, not much we can do anyway
+            }
+            mOutput = null;
+        }
+    }
+}
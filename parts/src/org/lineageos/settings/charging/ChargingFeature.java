@@ -0,0 +1,50 @@
+/*
+ * Copyright (C) 2025 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lineageos.settings.charging;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.UEventObserver;
+
+import org.lineageos.settings.PartsFeature;
+
+/**
+ * Runs the {@link ChargingPolicy} for as long as the parts service lives.
+ */
+public class ChargingFeature extends PartsFeature {
+    private final ChargingPolicy mPolicy;
+
+    public ChargingFeature(Context context, Handler handler) {
+        super(context, handler);
+        mPolicy = ChargingPolicy.getInstance(context);
+    }
+
+    @Override
+    public void onStart() {
+        mPolicy.start();
+    }
+
+    @Override
+    public void onStop() {
+        mPolicy.stop();
+    }
+
+    @Override
+    public void onPowerSupplyEvent(UEventObserver.UEvent event) {
+        mPolicy.onPowerSupplyEvent(event);
+    }
+}
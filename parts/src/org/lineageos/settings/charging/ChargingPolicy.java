@@ -0,0 +1,618 @@
+/*
+ * Copyright (C) 2025 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lineageos.settings.charging;
+
+import android.app.AlarmManager;
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.SharedPreferences;
+import android.os.BatteryManager;
+import android.os.FileObserver;
+import android.os.Handler;
+import android.os.SystemClock;
+import android.os.UEventObserver;
+import android.util.Log;
+
+import androidx.preference.PreferenceManager;
+
+import org.lineageos.settings.Constants;
+import org.lineageos.settings.R;
+import org.lineageos.settings.utils.FileUtils;
+import org.lineageos.settings.utils.HardwareExecutor;
+import org.lineageos.settings.utils.PreferenceSnapshot;
+import org.lineageos.settings.utils.PropertyUtils;
+import org.lineageos.settings.utils.SysfsNode;
+
+import java.io.IOException;
+
+/**
+ * Single owner of all charging nodes: turbo current, sports mode and the
+ * charge limit.
+ *
+ * The desired {@link ChargingState} is computed from a snapshot of the
+ * preferences and the live battery state. Whenever it changes it is applied in one ordered
+ * transaction on the hardware thread, writing only what changed. Changes of
+ * several preferences in a row are merged into one transaction.
+ *
+ * While turbo charging is on and a charger is online, the charge current is
+ * capped by a {@link ThermalCurrentController} fed with the battery
+ * temperature from uevents and the thermal sconfig scenario.
+ *
+ * Battery samples and the actions taken are recorded in {@link ChargeTelemetry}.
+ *
+ * Battery level reports lag behind the actual charge, so on the last percent
+ * before the stop level the crossing is predicted from the measured charge
+ * rate and charging is suspended by a single exact alarm at that time.
+ *
+ * With optimized charging the charge limit is held while the next alarm
+ * clock is less than {@link #OPTIMIZED_MAX_HOLD_MS} away and released in
+ * time to reach a full charge just before it.
+ *
+ * While a charger is online, the charge current node is reconciled on
+ * power_supply uevents and rewritten on every connect, as the driver may
+ * reset it. A lower value is left alone while the battery is warm or sconfig
+ * reports a demanding scenario, it is thermal derating by the HAL. After a
+ * mismatch was corrected, it is verified again on a timer whose interval
+ * doubles on every match, until it gives up at {@link #VERIFY_MAX_DELAY_MS}.
+ */
+public final class ChargingPolicy {
+    private static final String TAG = "ChargingPolicy";
+
+    private static final long VERIFY_MIN_DELAY_MS = 1000;
+    private static final long VERIFY_MAX_DELAY_MS = 64000;
+
+    /* Only alarms closer than this are worth holding the charge for */
+    private static final long OPTIMIZED_MAX_HOLD_MS = 12 * 60 * 60 * 1000;
+    /* Time per percent assumed when nothing faster was measured */
+    private static final long OPTIMIZED_MIN_PERCENT_MS = 2 * 60 * 1000;
+    /* Extra time to be full before the alarm */
+    private static final long OPTIMIZED_MARGIN_MS = 30 * 60 * 1000;
+
+    private static ChargingPolicy sInstance;
+
+    private final Context mContext;
+    private final Handler mHandler;
+    private final SharedPreferences mPrefs;
+
+    private final PreferenceSnapshot<ChargingSettings> mSettings;
+
+    /* Live battery state, only touched on the handler thread */
+    private int mBatteryLevel = -1;
+    private int mBatteryTemp = Integer.MIN_VALUE;
+    private int mBatteryCurrent;
+    private int mBatteryVoltage;
+    private boolean mUsbOnline;
+    private boolean mDemandingScenario;
+    /* Wall clock time of the next alarm clock, or 0 if there is none */
+    private long mNextAlarmTime;
+
+    private final ThermalCurrentController mThermalController;
+    private final ChargeRateEstimator mRateEstimator = new ChargeRateEstimator();
+    private final AlarmManager mAlarmManager;
+    private final ChargeTelemetry mTelemetry;
+    private FileObserver mSconfigObserver;
+
+    private volatile ChargingState mApplied;
+    /* The charge current node may have been reset, rewrite it on next apply */
+    private boolean mCurrentStale;
+    private boolean mStarted;
+    private long mVerifyDelay;
+    /* Elapsed realtime the stop alarm is armed for, or 0 if it is not */
+    private long mStopAlarmTime;
+    /* Set once the predicted stop time passed, until the level changes */
+    private boolean mPredictedStop;
+    /* Wall clock time the release alarm is armed for, or 0 if it is not */
+    private long mReleaseAlarmTime;
+    /* Set once the limit was released for the next alarm, until unplugged */
+    private boolean mOptimizedReleased;
+
+    private final Runnable mApplyRunnable = this::apply;
+
+    private final Runnable mThermalRunnable = this::updateThermalCap;
+
+    private final Runnable mVerifyRunnable = () -> {
+        mVerifyDelay *= 2;
+        reconcileChargeCurrent();
+    };
+
+    private final AlarmManager.OnAlarmListener mStopAlarmListener = () -> {
+        mStopAlarmTime = 0;
+        final ChargingSettings settings = mSettings.get();
+        if (settings.chargeControlEnabled && mUsbOnline && !mOptimizedReleased
+                && mBatteryLevel == settings.stopLevel - 1) {
+            Log.i(TAG, "Predicted to reach " + settings.stopLevel + "%, stopping charging");
+            mPredictedStop = true;
+            scheduleApply();
+        }
+    };
+
+    private final AlarmManager.OnAlarmListener mReleaseAlarmListener = () -> {
+        mReleaseAlarmTime = 0;
+        scheduleApply();
+    };
+
+    private final BroadcastReceiver mNextAlarmReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            mNextAlarmTime = readNextAlarmTime();
+            mOptimizedReleased = false;
+            scheduleApply();
+        }
+    };
+
+    private final PreferenceSnapshot.OnChangedListener<ChargingSettings> mSettingsListener =
+            settings -> mHandler.post(() -> {
+                mPredictedStop = false;
+                scheduleApply();
+            });
+
+    private final PropertyUtils.OnPropertyChangedListener mPropertyListener =
+            (key, value) -> reconcileChargeCurrent();
+
+    private ChargingPolicy(Context context) {
+        mContext = context;
+        mHandler = HardwareExecutor.getHandler();
+        mPrefs = PreferenceManager.getDefaultSharedPreferences(context);
+        mSettings = new PreferenceSnapshot<>(mPrefs, ChargingSettings.KEYS, ChargingSettings::new);
+        mAlarmManager = context.getSystemService(AlarmManager.class);
+
+        final String[] values = context.getResources().getStringArray(R.array.turbo_modes_values);
+        final int[] steps = new int[values.length];
+        for (int i = 0; i < values.length; i++) {
+            steps[i] = Integer.parseInt(values[i]);
+        }
+        mThermalController = new ThermalCurrentController(steps);
+        mTelemetry = ChargeTelemetry.getInstance(context);
+    }
+
+    public static synchronized ChargingPolicy getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new ChargingPolicy(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    /**
+     * Loads the preferences and battery state and applies the full state once.
+     * Must be called on the hardware thread.
+     */
+    public void start() {
+        if (mStarted) return;
+        mStarted = true;
+
+        mSettings.setListener(mSettingsListener);
+        PropertyUtils.addListener(Constants.PROP_TURBO_CURRENT, mPropertyListener);
+
+        // Seed from the sticky broadcast without registering a receiver
+        final Intent batteryStatus = mContext.registerReceiver(null,
+                new IntentFilter(Intent.ACTION_BATTERY_CHANGED));
+        if (batteryStatus != null) {
+            int level = batteryStatus.getIntExtra(BatteryManager.EXTRA_LEVEL, -1);
+            int scale = batteryStatus.getIntExtra(BatteryManager.EXTRA_SCALE, 100);
+            mBatteryLevel = (int) ((level / (float) scale) * 100);
+            mBatteryTemp = batteryStatus.getIntExtra(BatteryManager.EXTRA_TEMPERATURE,
+                    Integer.MIN_VALUE);
+            mBatteryVoltage = batteryStatus.getIntExtra(BatteryManager.EXTRA_VOLTAGE, 0) * 1000;
+        }
+        mUsbOnline = "1".equals(FileUtils.readOneLine(Constants.NODE_USB_ONLINE));
+
+        mDemandingScenario = readDemandingScenario();
+        mSconfigObserver = new FileObserver(Constants.NODE_THERMAL_SCONFIG, FileObserver.MODIFY) {
+            @Override
+            public void onEvent(int event, String path) {
+                mHandler.post(() -> {
+                    final boolean demanding = readDemandingScenario();
+                    if (demanding != mDemandingScenario) {
+                        mDemandingScenario = demanding;
+                        scheduleApply();
+                    }
+                });
+            }
+        };
+        mSconfigObserver.startWatching();
+        updateThermalCap();
+
+        mNextAlarmTime = readNextAlarmTime();
+        mContext.registerReceiver(mNextAlarmReceiver,
+                new IntentFilter(AlarmManager.ACTION_NEXT_ALARM_CLOCK_CHANGED), null, mHandler);
+
+        mRateEstimator.reset();
+        mPredictedStop = false;
+        mOptimizedReleased = false;
+        mApplied = null;
+        apply();
+    }
+
+    /**
+     * Must be called on the hardware thread.
+     */
+    public void stop() {
+        if (!mStarted) return;
+        mStarted = false;
+        mSettings.setListener(null);
+        PropertyUtils.removeListener(Constants.PROP_TURBO_CURRENT, mPropertyListener);
+        mHandler.removeCallbacks(mApplyRunnable);
+        mHandler.removeCallbacks(mThermalRunnable);
+        mSconfigObserver.stopWatching();
+        cancelVerify();
+        cancelStopAlarm();
+        cancelReleaseAlarm();
+        mContext.unregisterReceiver(mNextAlarmReceiver);
+    }
+
+    /**
+     * Returns the state last applied, or the one that would be applied if the
+     * policy is not running.
+     */
+    public ChargingState getState() {
+        final ChargingState applied = mApplied;
+        if (applied != null) return applied;
+        final ChargingSettings settings = mSettings.get();
+        final String target = getTargetCurrent(settings.turboEnabled, settings.turboCurrent);
+        return new ChargingState(target, target, false, false);
+    }
+
+    /**
+     * Returns the current snapshot of the charging preferences.
+     */
+    public ChargingSettings getSettings() {
+        return mSettings.get();
+    }
+
+    public boolean isTurboEnabled() {
+        return mSettings.get().turboEnabled;
+    }
+
+    public void setTurboEnabled(boolean enabled) {
+        mPrefs.edit().putBoolean(Constants.KEY_TURBO_ENABLE, enabled).apply();
+    }
+
+    public boolean isChargeControlEnabled() {
+        return mSettings.get().chargeControlEnabled;
+    }
+
+    public void setChargeControlEnabled(boolean enabled) {
+        mPrefs.edit().putBoolean(Constants.KEY_CHARGE_CONTROL, enabled).apply();
+    }
+
+    /**
+     * Feeds a power_supply uevent. Must be called on the hardware thread.
+     */
+    public void onPowerSupplyEvent(UEventObserver.UEvent event) {
+        final String name = event.get("POWER_SUPPLY_NAME");
+        if ("usb".equals(name)) {
+            final String online = event.get("POWER_SUPPLY_ONLINE");
+            if (online != null && mUsbOnline != online.equals("1")) {
+                mUsbOnline = !mUsbOnline;
+                Log.i(TAG, "Charger " + (mUsbOnline ? "connected" : "disconnected"));
+                mPredictedStop = false;
+                if (mUsbOnline) {
+                    mRateEstimator.invalidate();
+                    // The driver may have reset the current on connect
+                    mCurrentStale = true;
+                } else {
+                    mRateEstimator.reset();
+                    mOptimizedReleased = false;
+                    cancelVerify();
+                    mThermalController.reset();
+                    mHandler.removeCallbacks(mThermalRunnable);
+                }
+                scheduleApply();
+            }
+        } else if ("battery".equals(name)) {
+            final String capacity = event.get("POWER_SUPPLY_CAPACITY");
+            if (capacity != null) {
+                try {
+                    final int level = Integer.parseInt(capacity);
+                    if (level != mBatteryLevel) {
+                        final ChargingState applied = mApplied;
+                        mRateEstimator.onLevelChanged(level, SystemClock.elapsedRealtime(),
+                                mUsbOnline && applied != null && !applied.chargingSuspended);
+                        mBatteryLevel = level;
+                        mPredictedStop = false;
+                        scheduleApply();
+                    }
+                } catch (NumberFormatException e) {
+                    Log.e(TAG, "Invalid battery capacity " + capacity);
+                }
+            }
+            final String temp = event.get("POWER_SUPPLY_TEMP");
+            if (temp != null) {
+                try {
+                    mBatteryTemp = Integer.parseInt(temp);
+                    updateThermalCap();
+                } catch (NumberFormatException e) {
+                    Log.e(TAG, "Invalid battery temperature " + temp);
+                }
+            }
+            mBatteryCurrent = parseInt(event.get("POWER_SUPPLY_CURRENT_NOW"), mBatteryCurrent);
+            mBatteryVoltage = parseInt(event.get("POWER_SUPPLY_VOLTAGE_NOW"), mBatteryVoltage);
+        }
+        recordSample(ChargeTelemetry.ACTION_NONE);
+        if (mUsbOnline && mVerifyDelay == 0) {
+            reconcileChargeCurrent();
+        }
+    }
+
+    private static int parseInt(String value, int def) {
+        if (value == null) return def;
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return def;
+        }
+    }
+
+    private void recordSample(int action) {
+        if (mBatteryLevel < 0) return;
+        final ChargingState applied = mApplied;
+        mTelemetry.sample(mBatteryLevel, mBatteryCurrent, mBatteryVoltage,
+                mBatteryTemp == Integer.MIN_VALUE ? 0 : mBatteryTemp, mUsbOnline,
+                applied != null && applied.chargingSuspended, action,
+                System.currentTimeMillis());
+    }
+
+    private static String getTargetCurrent(boolean turboEnabled, String turboCurrent) {
+        return turboEnabled ? turboCurrent : Constants.DEFAULT_TURBO_OFF_CURRENT;
+    }
+
+    private boolean readDemandingScenario() {
+        // 0 is the default scenario, anything else is a heavier workload
+        final String scenario = FileUtils.readOneLine(Constants.NODE_THERMAL_SCONFIG);
+        try {
+            return scenario != null && Integer.parseInt(scenario.trim()) != 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private void updateThermalCap() {
+        mHandler.removeCallbacks(mThermalRunnable);
+        final ChargingSettings settings = mSettings.get();
+        if (!settings.turboEnabled || !mUsbOnline || mBatteryTemp == Integer.MIN_VALUE) return;
+        final int oldCap = mThermalController.getCap(false);
+        final long delay = mThermalController.update(mBatteryTemp, SystemClock.elapsedRealtime());
+        if (mThermalController.getCap(false) != oldCap) {
+            recordSample(ChargeTelemetry.ACTION_THERMAL);
+        }
+        if (delay > 0) {
+            // Rate limited, take the step later unless the temperature settles
+            mHandler.postDelayed(mThermalRunnable, delay);
+        }
+        scheduleApply();
+    }
+
+    private ChargingState computeState() {
+        final ChargingSettings settings = mSettings.get();
+        final String targetCurrent = getTargetCurrent(settings.turboEnabled, settings.turboCurrent);
+        String chargeCurrent = targetCurrent;
+        if (settings.turboEnabled && mUsbOnline) {
+            try {
+                final int cap = mThermalController.getCap(mDemandingScenario);
+                if (Integer.parseInt(targetCurrent) > cap) {
+                    chargeCurrent = Integer.toString(cap);
+                }
+            } catch (NumberFormatException e) {
+                Log.e(TAG, "Invalid turbo current " + targetCurrent);
+            }
+        }
+        final boolean sportsMode = settings.turboEnabled && settings.sportsMode;
+
+        final boolean wasSuspended = mApplied != null && mApplied.chargingSuspended;
+        final boolean suspended;
+        if (!settings.chargeControlEnabled || mBatteryLevel < 0 || mOptimizedReleased) {
+            suspended = false;
+        } else if (mBatteryLevel >= settings.stopLevel || mPredictedStop) {
+            suspended = true;
+        } else if (mBatteryLevel <= settings.resumeLevel) {
+            suspended = false;
+        } else {
+            suspended = wasSuspended;
+        }
+        return new ChargingState(targetCurrent, chargeCurrent, sportsMode, suspended);
+    }
+
+    private void scheduleApply() {
+        if (!mStarted) return;
+        mHandler.removeCallbacks(mApplyRunnable);
+        mHandler.post(mApplyRunnable);
+    }
+
+    /**
+     * Applies the desired state in a fixed order: suspending charging comes
+     * first and resuming it comes last, so the current and mode are never
+     * changed while the charger is drawing with stale limits.
+     */
+    private void apply() {
+        updateOptimizedRelease();
+        final ChargingState desired = computeState();
+        final ChargingState applied = mApplied;
+        if (desired.equals(applied) && !mCurrentStale) {
+            updateStopAlarm();
+            return;
+        }
+        Log.i(TAG, "Applying " + desired);
+
+        if (desired.chargingSuspended && (applied == null || !applied.chargingSuspended)) {
+            writeNode(Constants.NODE_STOP_CHARGING, "1");
+            Log.d(TAG, "Charging stopped at " + mBatteryLevel + "%");
+        }
+        if (applied == null || !desired.targetCurrent.equals(applied.targetCurrent)) {
+            PropertyUtils.set(Constants.PROP_TURBO_CURRENT, desired.targetCurrent);
+        }
+        if (mCurrentStale) {
+            forceWriteNode(Constants.NODE_CHARGE_CURRENT, desired.chargeCurrent);
+            mCurrentStale = false;
+        } else if (applied == null || !desired.chargeCurrent.equals(applied.chargeCurrent)) {
+            writeNode(Constants.NODE_CHARGE_CURRENT, desired.chargeCurrent);
+        }
+        if (applied == null || desired.sportsMode != applied.sportsMode) {
+            writeNode(Constants.NODE_SPORTS_MODE,
+                    desired.sportsMode ? Constants.SPORTS_MODE_ON : Constants.SPORTS_MODE_OFF);
+        }
+        if (!desired.chargingSuspended && (applied == null || applied.chargingSuspended)) {
+            writeNode(Constants.NODE_STOP_CHARGING, "0");
+            if (applied != null) {
+                Log.d(TAG, "Charging allowed at " + mBatteryLevel + "%");
+            }
+        }
+        mApplied = desired;
+
+        if (applied != null && desired.chargingSuspended != applied.chargingSuspended) {
+            mRateEstimator.invalidate();
+            recordSample(desired.chargingSuspended
+                    ? ChargeTelemetry.ACTION_SUSPEND : ChargeTelemetry.ACTION_RESUME);
+        }
+        updateStopAlarm();
+    }
+
+    /**
+     * Arms the stop alarm for the predicted crossing of the stop level while
+     * charging on the last percent before it, cancels it otherwise.
+     */
+    private void updateStopAlarm() {
+        final ChargingSettings settings = mSettings.get();
+        final ChargingState applied = mApplied;
+        final long when = mRateEstimator.predictNextLevelTime();
+        if (!mStarted || !settings.chargeControlEnabled || !mUsbOnline || mOptimizedReleased
+                || applied == null || applied.chargingSuspended
+                || mBatteryLevel != settings.stopLevel - 1 || when < 0) {
+            cancelStopAlarm();
+            return;
+        }
+        if (when == mStopAlarmTime) return;
+        // Replaces the previous alarm of the same listener
+        mAlarmManager.setExact(AlarmManager.ELAPSED_REALTIME_WAKEUP, when, TAG,
+                mStopAlarmListener, mHandler);
+        mStopAlarmTime = when;
+    }
+
+    /**
+     * Releases the charge limit once the time needed to charge to full before
+     * the next alarm is reached, and otherwise arms an alarm for that time.
+     */
+    private void updateOptimizedRelease() {
+        final ChargingSettings settings = mSettings.get();
+        final long now = System.currentTimeMillis();
+        if (!settings.chargeControlEnabled || !settings.optimizedCharging || !mUsbOnline
+                || mOptimizedReleased || mBatteryLevel < 0 || mNextAlarmTime <= now
+                || mNextAlarmTime - now > OPTIMIZED_MAX_HOLD_MS) {
+            cancelReleaseAlarm();
+            return;
+        }
+        final long percentTime = Math.max(mRateEstimator.getAverageInterval(),
+                OPTIMIZED_MIN_PERCENT_MS);
+        final long releaseTime = mNextAlarmTime - OPTIMIZED_MARGIN_MS
+                - (100 - mBatteryLevel) * percentTime;
+        if (now >= releaseTime) {
+            Log.i(TAG, "Releasing charge limit to be full by the next alarm");
+            mOptimizedReleased = true;
+            mPredictedStop = false;
+            cancelReleaseAlarm();
+            return;
+        }
+        if (releaseTime == mReleaseAlarmTime) return;
+        // Replaces the previous alarm of the same listener
+        mAlarmManager.setExact(AlarmManager.RTC_WAKEUP, releaseTime, TAG,
+                mReleaseAlarmListener, mHandler);
+        mReleaseAlarmTime = releaseTime;
+    }
+
+    private void cancelReleaseAlarm() {
+        if (mReleaseAlarmTime != 0) {
+            mAlarmManager.cancel(mReleaseAlarmListener);
+            mReleaseAlarmTime = 0;
+        }
+    }
+
+    private long readNextAlarmTime() {
+        final AlarmManager.AlarmClockInfo info = mAlarmManager.getNextAlarmClock();
+        return info != null ? info.getTriggerTime() : 0;
+    }
+
+    private void cancelStopAlarm() {
+        if (mStopAlarmTime != 0) {
+            mAlarmManager.cancel(mStopAlarmListener);
+            mStopAlarmTime = 0;
+        }
+    }
+
+    private void reconcileChargeCurrent() {
+        final ChargingState applied = mApplied;
+        if (!mUsbOnline || applied == null) return;
+        String currentNodeValue = FileUtils.readOneLine(Constants.NODE_CHARGE_CURRENT);
+        String desiredValue = applied.chargeCurrent;
+        // A lower current while warm is thermal derating by the HAL, it counts as a match
+        if (!desiredValue.equals(currentNodeValue)
+                && !(isThermallyLimited() && isLower(currentNodeValue, desiredValue))) {
+            Log.i(TAG, "Detected mismatch in sysfs node (found: " + currentNodeValue +
+                    ", desired: " + desiredValue + "). Updating...");
+            // Our last write matches, it must not be skipped
+            forceWriteNode(Constants.NODE_CHARGE_CURRENT, desiredValue);
+            // Something else touched the node, keep an eye on it for a while
+            mVerifyDelay = VERIFY_MIN_DELAY_MS;
+        } else if (mVerifyDelay == 0) {
+            return;
+        } else if (mVerifyDelay > VERIFY_MAX_DELAY_MS) {
+            cancelVerify();
+            return;
+        }
+        mHandler.removeCallbacks(mVerifyRunnable);
+        mHandler.postDelayed(mVerifyRunnable, mVerifyDelay);
+    }
+
+    /**
+     * Returns whether the thermal HAL is expected to derate the charge current.
+     */
+    private boolean isThermallyLimited() {
+        return mDemandingScenario || (mBatteryTemp != Integer.MIN_VALUE
+                && ThermalCurrentController.isWarm(mBatteryTemp));
+    }
+
+    /**
+     * Returns whether the node holds a lower current than the desired one.
+     */
+    private static boolean isLower(String nodeValue, String desiredValue) {
+        if (nodeValue == null) return false;
+        try {
+            return Long.parseLong(nodeValue.trim()) < Long.parseLong(desiredValue.trim());
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private void cancelVerify() {
+        mHandler.removeCallbacks(mVerifyRunnable);
+        mVerifyDelay = 0;
+    }
+
+    private static void writeNode(String node, String value) {
+        if (!FileUtils.writeLine(node, value)) {
+            Log.e(TAG, "Failed to write " + value + " to " + node);
+        }
+    }
+
+    private static void forceWriteNode(String node, String value) {
+        try {
+            SysfsNode.get(node).forceWrite(value);
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to write " + value + " to " + node, e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (C) 2025 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lineageos.settings.charging;
+
+import android.content.SharedPreferences;
+import android.util.ArraySet;
+
+import org.lineageos.settings.Constants;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Snapshot of the charging preferences.
+ */
+public final class ChargingSettings {
+    static final Set<String> KEYS = new ArraySet<>(Arrays.asList(
+            Constants.KEY_TURBO_ENABLE,
+            Constants.KEY_TURBO_CURRENT,
+            Constants.KEY_SPORTS_MODE,
+            Constants.KEY_CHARGE_CONTROL,
+            Constants.KEY_STOP_CHARGING,
+            Constants.KEY_RESUME_CHARGING,
+            Constants.KEY_OPTIMIZED_CHARGING));
+
+    public final boolean turboEnabled;
+    public final String turboCurrent;
+    public final boolean sportsMode;
+    public final boolean chargeControlEnabled;
+    public final int stopLevel;
+    public final int resumeLevel;
+    public final boolean optimizedCharging;
+
+    ChargingSettings(SharedPreferences prefs) {
+        turboEnabled = prefs.getBoolean(Constants.KEY_TURBO_ENABLE, false);
+        turboCurrent = prefs.getString(Constants.KEY_TURBO_CURRENT,
+                Constants.DEFAULT_TURBO_ON_CURRENT);
+        sportsMode = prefs.getBoolean(Constants.KEY_SPORTS_MODE, false);
+        chargeControlEnabled = prefs.getBoolean(Constants.KEY_CHARGE_CONTROL, false);
+        stopLevel = prefs.getInt(Constants.KEY_STOP_CHARGING,
+                Integer.parseInt(Constants.DEFAULT_STOP_CHARGING));
+        resumeLevel = prefs.getInt(Constants.KEY_RESUME_CHARGING,
+                Integer.parseInt(Constants.DEFAULT_RESUME_CHARGING));
+        optimizedCharging = prefs.getBoolean(Constants.KEY_OPTIMIZED_CHARGING, false);
+    }
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2025 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lineageos.settings.charging;
+
+import java.util.Objects;
+
+/**
+ * Immutable desired state of all charging nodes.
+ */
+public final class ChargingState {
+    /** Requested charge current for persist.sys.turbo_charge_current, in uA. */
+    public final String targetCurrent;
+    /** Effective charge current for constant_charge_current after thermal limits, in uA. */
+    public final String chargeCurrent;
+    /** Whether smart_chg is in sports mode. */
+    public final boolean sportsMode;
+    /** Whether input_suspend stops charging. */
+    public final boolean chargingSuspended;
+
+    public ChargingState(String targetCurrent, String chargeCurrent, boolean sportsMode,
+            boolean chargingSuspended) {
+        this.targetCurrent = targetCurrent;
+        this.chargeCurrent = chargeCurrent;
+        this.sportsMode = sportsMode;
+        this.chargingSuspended = chargingSuspended;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ChargingState)) return false;
+        final ChargingState other = (ChargingState) o;
+        return targetCurrent.equals(other.targetCurrent)
+                && chargeCurrent.equals(other.chargeCurrent)
+                && sportsMode == other.sportsMode
+                && chargingSuspended == other.chargingSuspended;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(targetCurrent, chargeCurrent, sportsMode, chargingSuspended);
+    }
+
+    @Override
+    public String toString() {
+        return "ChargingState(target=" + targetCurrent + ", current=" + chargeCurrent
+                + ", sports=" + sportsMode
+                + ", suspended=" + chargingSuspended + ")";
+    }
+}
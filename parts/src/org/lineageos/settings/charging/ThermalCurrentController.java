@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2025 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lineageos.settings.charging;
+
+import android.util.Log;
+
+import java.util.Arrays;
+
+/**
+ * Closed loop cap for the turbo charge current.
+ *
+ * The cap moves one step of the available charge currents at a time. It
+ * steps down while the battery is at or above {@link #TEMP_HIGH} and back up
+ * while it is at or below {@link #TEMP_LOW}, in between it holds. Steps are
+ * rate limited, stepping up more slowly than stepping down. While the thermal
+ * scenario reports a demanding workload the cap never exceeds
+ * {@link #SCENARIO_MAX_CURRENT}.
+ */
+final class ThermalCurrentController {
+    private static final String TAG = "ThermalCurrentController";
+
+    /* Battery temperature thresholds, in tenths of a degree Celsius */
+    private static final int TEMP_HIGH = 420;
+    private static final int TEMP_LOW = 390;
+
+    private static final long STEP_DOWN_INTERVAL_MS = 30 * 1000;
+    private static final long STEP_UP_INTERVAL_MS = 120 * 1000;
+
+    /* Highest current allowed while sconfig reports a non default scenario */
+    private static final int SCENARIO_MAX_CURRENT = 6000000;
+
+    private final int[] mSteps;
+    private int mCapIndex;
+    private long mLastStepTime = Long.MIN_VALUE / 2;
+
+    /**
+     * @param steps the available charge currents, in uA
+     */
+    ThermalCurrentController(int[] steps) {
+        mSteps = steps.clone();
+        Arrays.sort(mSteps);
+        mCapIndex = mSteps.length - 1;
+    }
+
+    /**
+     * Lifts the cap completely, e.g. once the charger is unplugged.
+     */
+    void reset() {
+        mCapIndex = mSteps.length - 1;
+        mLastStepTime = Long.MIN_VALUE / 2;
+    }
+
+    /**
+     * Feeds a battery temperature sample.
+     *
+     * @param temp battery temperature in tenths of a degree Celsius
+     * @param now elapsed realtime in milliseconds
+     * @return 0 if nothing is pending, or the delay after which a step that
+     *         was held back by rate limiting may be taken
+     */
+    long update(int temp, long now) {
+        final int direction;
+        final long interval;
+        if (temp >= TEMP_HIGH && mCapIndex > 0) {
+            direction = -1;
+            interval = STEP_DOWN_INTERVAL_MS;
+        } else if (temp <= TEMP_LOW && mCapIndex < mSteps.length - 1) {
+            direction = 1;
+            interval = STEP_UP_INTERVAL_MS;
+        } else {
+            return 0;
+        }
+
+        final long elapsed = now - mLastStepTime;
+        if (elapsed < interval) {
+            return interval - elapsed;
+        }
+        mCapIndex += direction;
+        mLastStepTime = now;
+        Log.i(TAG, "Battery at " + temp / 10f + "C, charge current cap "
+                + (direction < 0 ? "lowered" : "raised") + " to " + mSteps[mCapIndex]);
+        return 0;
+    }
+
+    /**
+     * Returns whether the battery is too warm for the cap to be raised, the
+     * range in which the thermal HAL may derate the current on its own.
+     *
+     * @param temp battery temperature in tenths of a degree Celsius
+     */
+    static boolean isWarm(int temp) {
+        return temp > TEMP_LOW;
+    }
+
+    /**
+     * Returns the current cap, in uA.
+     *
+     * @param demandingScenario whether the thermal scenario is not the default one
+     */
+    int getCap(boolean demandingScenario) {
+        final int cap = mSteps[mCapIndex];
+        return demandingScenario ? Math.min(cap, SCENARIO_MAX_CURRENT) : cap;
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (C) 2023-2024 Paranoid Android
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.lineageos.settings.display;
+
+import static android.provider.Settings.System.DISPLAY_COLOR_MODE;
+import static org.lineageos.settings.display.DfWrapper.DfParams;
+
+import android.content.Context;
+import android.database.ContentObserver;
+import android.hardware.display.AmbientDisplayConfiguration;
+import android.os.Handler;
+import android.os.SystemProperties;
+import android.os.UserHandle;
+import android.provider.Settings;
+import android.util.Log;
+
+import org.lineageos.settings.PartsFeature;
+
+import java.util.Map;
+
+public class ColorModeFeature extends PartsFeature {
+    private static final String TAG = "XiaomiPartsColorModeService";
+    private static final boolean DEBUG = false;
+
+    private static final int DEFAULT_COLOR_MODE = SystemProperties.getInt("persist.sys.sf.native_mode", 0);
+    private static final DfParams STANDARD_PARAMS = new DfParams(2, 2, 255);
+
+    /* original/p3/srgb */
+    private static final int EXPERT_MODE = 26;
+    private static final DfParams EXPERT_PARAMS = new DfParams(EXPERT_MODE, 0, 10);
+
+    /* color mode -> displayfeature (mode, value, cookie) */
+    private static final Map<Integer, DfParams> COLOR_MAP = Map.of(
+        258, new DfParams(0, 2, 255),  // Vivid
+        256, new DfParams(1, 2, 255),  // Saturated
+        257, STANDARD_PARAMS,          // Standard
+        269, new DfParams(26, 1, 0),   // Original
+        268, new DfParams(26, 2, 0),   // P3
+        267, new DfParams(26, 3, 0)    // sRGB
+    );
+
+    private AmbientDisplayConfiguration mAmbientConfig;
+    private boolean mIsDozing;
+
+    private final ContentObserver mSettingObserver;
+
+    private final Runnable mRestoreRunnable = () -> {
+        if (DEBUG) Log.d(TAG, "Restoring color mode after AOD");
+        setCurrentColorMode();
+    };
+
+    private final Runnable mDozeRunnable = this::setStandardColorModeForDoze;
+
+    private final Runnable mDozeRetryRunnable = () -> {
+        if (DEBUG) Log.d(TAG, "Retrying to set standard color mode for AOD");
+        DfWrapper.setDisplayFeatureAsync(STANDARD_PARAMS);
+    };
+
+    public ColorModeFeature(Context context, Handler handler) {
+        super(context, handler);
+        mSettingObserver = new ContentObserver(handler) {
+            @Override
+            public void onChange(boolean selfChange) {
+                if (DEBUG) Log.d(TAG, "SettingObserver: onChange");
+                setCurrentColorMode();
+            }
+        };
+    }
+
+    @Override
+    public void onStart() {
+        mAmbientConfig = new AmbientDisplayConfiguration(mContext);
+        mContext.getContentResolver().registerContentObserver(
+                Settings.System.getUriFor(DISPLAY_COLOR_MODE),
+                false, mSettingObserver, UserHandle.USER_CURRENT);
+
+        setCurrentColorMode();
+    }
+
+    @Override
+    public void onStop() {
+        mContext.getContentResolver().unregisterContentObserver(mSettingObserver);
+        removeCallbacks();
+    }
+
+    private void removeCallbacks() {
+        // The handler is shared, only drop what this feature posted
+        mHandler.removeCallbacks(mRestoreRunnable);
+        mHandler.removeCallbacks(mDozeRunnable);
+        mHandler.removeCallbacks(mDozeRetryRunnable);
+    }
+
+    private void setCurrentColorMode() {
+        if (mIsDozing) {
+            if (DEBUG) Log.d(TAG, "Skipping color mode change in AOD");
+            return;
+        }
+
+        int colorMode = Settings.System.getIntForUser(mContext.getContentResolver(),
+                DISPLAY_COLOR_MODE, DEFAULT_COLOR_MODE, UserHandle.USER_CURRENT);
+
+        DfParams params = COLOR_MAP.getOrDefault(colorMode, STANDARD_PARAMS);
+        if (DEBUG) Log.d(TAG, "Setting color mode: " + colorMode + ", params=" + params);
+
+        DfWrapper.setDisplayFeatureAsync(params.mode == EXPERT_MODE ? EXPERT_PARAMS : params);
+    }
+
+    @Override
+    public void onScreenOn() {
+        if (mIsDozing) {
+            mIsDozing = false;
+            removeCallbacks();
+            mHandler.postDelayed(mRestoreRunnable, 100);
+        }
+    }
+
+    @Override
+    public void onScreenOff() {
+        if (!mAmbientConfig.alwaysOnEnabled(UserHandle.USER_CURRENT)) {
+            if (DEBUG) Log.d(TAG, "AOD not enabled");
+            mIsDozing = false;
+            return;
+        }
+        mIsDozing = true;
+
+        mHandler.postDelayed(mDozeRunnable, 500); // Delay for stability
+    }
+
+    private void setStandardColorModeForDoze() {
+        removeCallbacks();
+        if (DEBUG) Log.d(TAG, "Setting standard color mode for AOD");
+
+        DfWrapper.setDisplayFeatureAsync(STANDARD_PARAMS);
+
+        // Retry logic
+        mHandler.postDelayed(mDozeRetryRunnable, 200);
+    }
+}
@@ -6,16 +6,34 @@
 
 package org.lineageos.settings.display;
 
+import android.os.Binder;
 import android.os.IBinder;
+import android.os.IServiceCallback;
+import android.os.RemoteException;
 import android.os.ServiceManager;
 import android.util.Log;
+
+import org.lineageos.settings.utils.HardwareExecutor;
+
 import vendor.xiaomi.hardware.displayfeature_aidl.IDisplayFeature;
 
 public class DfWrapper {
 
     private static final String TAG = "XiaomiPartsDisplayFeatureWrapper";
+    private static final String SERVICE_NAME = IDisplayFeature.DESCRIPTOR + "/default";
 
     private static IDisplayFeature mDisplayFeature;
+    private static boolean sRegistered;
+    /* Last requested parameters, replayed whenever the HAL (re)appears */
+    private static volatile DfParams sLastParams;
+
+    private static final IServiceCallback sServiceCallback = new IServiceCallback.Stub() {
+        @Override
+        public void onRegistration(String name, IBinder binder) {
+            // Unkeyed, it must not replace a pending request
+            HardwareExecutor.execute(() -> onServiceRegistered(binder));
+        }
+    };
 
     private static IBinder.DeathRecipient mDeathRecipient = new IBinder.DeathRecipient() {
         @Override
@@ -28,19 +46,51 @@ public class DfWrapper {
     public static IDisplayFeature getDisplayFeature() {
         if (mDisplayFeature == null) {
             Log.d(TAG, "getDisplayFeature: mDisplayFeature=null");
-            try {
-                String name = "default";
-                String fqName = IDisplayFeature.DESCRIPTOR + "/" + name;
-                IBinder binder = android.os.Binder.allowBlocking(ServiceManager.waitForDeclaredService(fqName));
-                mDisplayFeature = IDisplayFeature.Stub.asInterface(binder);
-                mDisplayFeature.asBinder().linkToDeath(mDeathRecipient, 0);
-            } catch (Exception e) {
-                Log.e(TAG, "getDisplayFeature failed!", e);
+            ensureRegistered();
+            // Never block the shared hardware thread waiting for the HAL
+            IBinder binder = ServiceManager.checkService(SERVICE_NAME);
+            if (binder == null) {
+                Log.e(TAG, "getDisplayFeature: " + SERVICE_NAME + " is not running yet");
+                return null;
             }
+            connect(binder);
         }
         return mDisplayFeature;
     }
 
+    /**
+     * Gets called back once the HAL registers, so one that comes up late at
+     * boot or restarts still gets the last requested parameters.
+     */
+    private static void ensureRegistered() {
+        if (sRegistered) return;
+        try {
+            ServiceManager.registerForNotifications(SERVICE_NAME, sServiceCallback);
+            sRegistered = true;
+        } catch (RemoteException e) {
+            Log.e(TAG, "Failed to register for " + SERVICE_NAME, e);
+        }
+    }
+
+    private static void connect(IBinder binder) {
+        try {
+            binder.linkToDeath(mDeathRecipient, 0);
+            mDisplayFeature = IDisplayFeature.Stub.asInterface(Binder.allowBlocking(binder));
+        } catch (RemoteException e) {
+            Log.e(TAG, "getDisplayFeature failed!", e);
+        }
+    }
+
+    private static void onServiceRegistered(IBinder binder) {
+        if (mDisplayFeature != null && mDisplayFeature.asBinder() == binder) return;
+        connect(binder);
+        final DfParams params = sLastParams;
+        if (mDisplayFeature != null && params != null) {
+            Log.i(TAG, "displayfeature HAL registered, replaying " + params);
+            setDisplayFeature(params);
+        }
+    }
+
     public static void setDisplayFeature(DfParams params) {
         final IDisplayFeature displayFeature = getDisplayFeature();
         if (displayFeature == null) {
@@ -55,6 +105,15 @@ public class DfWrapper {
         }
     }
 
+    /**
+     * Queues {@link #setDisplayFeature} on the {@link HardwareExecutor}.
+     * A pending, not yet applied request is replaced.
+     */
+    public static void setDisplayFeatureAsync(DfParams params) {
+        sLastParams = params;
+        HardwareExecutor.execute(TAG, () -> setDisplayFeature(params));
+    }
+
     public static class DfParams {
         /* displayfeature parameters */
         final int mode, value, cookie;
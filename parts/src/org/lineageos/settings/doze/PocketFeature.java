@@ -0,0 +1,102 @@
+/*
+ * Copyright (C) 2024 Paranoid Android
+ *
+ * SPDX-License-Identifier: Apache-2.0
+ */
+
+package org.lineageos.settings.doze;
+
+import android.content.Context;
+import android.hardware.Sensor;
+import android.hardware.SensorEvent;
+import android.hardware.SensorEventListener;
+import android.hardware.SensorManager;
+import android.os.Handler;
+import android.os.PowerManager;
+import android.os.SystemClock;
+import android.util.Log;
+
+import org.lineageos.settings.PartsFeature;
+
+public class PocketFeature extends PartsFeature {
+
+    private static final String TAG = "PocketService";
+
+    /* xiaomi.sensor.large_area_detect */
+    private static final int TYPE_LARGE_AREA_TOUCH_SENSOR = 33171031;
+
+    private PowerManager mPowerManager;
+    private SensorManager mSensorManager;
+    private Sensor mTouchSensor;
+
+    private boolean mUserPresent;
+
+    public PocketFeature(Context context, Handler handler) {
+        super(context, handler);
+    }
+
+    @Override
+    public void onStart() {
+        dlog("Creating service");
+        mPowerManager = mContext.getSystemService(PowerManager.class);
+        mSensorManager = mContext.getSystemService(SensorManager.class);
+        mTouchSensor = mSensorManager.getDefaultSensor(TYPE_LARGE_AREA_TOUCH_SENSOR);
+    }
+
+    @Override
+    public void onStop() {
+        dlog("Destroying service");
+        mSensorManager.unregisterListener(mSensorListener, mTouchSensor);
+    }
+
+    @Override
+    public void onScreenOn() {
+        dlog("Received ACTION_SCREEN_ON mUserPresent=" + mUserPresent);
+        if (mUserPresent) return;
+        mSensorManager.registerListener(mSensorListener,
+                mTouchSensor, SensorManager.SENSOR_DELAY_NORMAL, mHandler);
+    }
+
+    @Override
+    public void onScreenOff() {
+        dlog("Received ACTION_SCREEN_OFF");
+        mSensorManager.unregisterListener(mSensorListener, mTouchSensor);
+        mUserPresent = false;
+    }
+
+    @Override
+    public void onUserPresent() {
+        dlog("Received ACTION_USER_PRESENT");
+        // disable when unlocked
+        mSensorManager.unregisterListener(mSensorListener, mTouchSensor);
+        mUserPresent = true;
+    }
+
+    private SensorEventListener mSensorListener = new SensorEventListener() {
+        @Override
+        public void onAccuracyChanged(Sensor sensor, int accuracy) {
+            // no-op
+        }
+
+        @Override
+        public void onSensorChanged(SensorEvent event) {
+            boolean isTouchDetected = event.values[0] == 1;
+            boolean isOnKeyguard = mDeviceState.isKeyguardLocked();
+
+            dlog("onSensorChanged type=" + event.sensor.getType()
+                    + " value=" + event.values[0] + " isTouchDetected="
+                    + isTouchDetected + " isOnKeyguard=" + isOnKeyguard);
+
+            if (isTouchDetected && isOnKeyguard) {
+                Log.i(TAG, "In pocket, going to sleep");
+                mPowerManager.goToSleep(SystemClock.uptimeMillis());
+            }
+        }
+    };
+
+    private static void dlog(String msg) {
+        if (Log.isLoggable(TAG, Log.DEBUG)) {
+            Log.d(TAG, msg);
+        }
+    }
+}
@@ -36,6 +36,8 @@ import com.android.settingslib.widget.LayoutPreference
 import org.lineageos.settings.Constants
 import org.lineageos.settings.CustomSeekBarPreference
 import org.lineageos.settings.R
+import org.lineageos.settings.Startup
+import org.lineageos.settings.utils.HardwareExecutor
 import org.lineageos.settings.utils.TileUtils
 
 class SaturationFragment : PreferenceFragmentCompat(), Preference.OnPreferenceChangeListener {
@@ -97,12 +99,13 @@ class SaturationFragment : PreferenceFragmentCompat(), Preference.OnPreferenceCh
 
     private fun updateSaturation(seekBarValue: Int) {
         val saturation = if (seekBarValue == 100) 1.001f else seekBarValue / 100.0f
-        mSurfaceFlinger?.let {
+        val surfaceFlinger = mSurfaceFlinger ?: return
+        HardwareExecutor.execute(Startup.SATURATION_COMMAND_KEY) {
             try {
                 val data = Parcel.obtain()
                 data.writeInterfaceToken("android.ui.ISurfaceComposer")
                 data.writeFloat(saturation)
-                it.transact(1022, data, null, 0)
+                surfaceFlinger.transact(1022, data, null, 0)
                 data.recycle()
             } catch (e: RemoteException) {
                 e.printStackTrace()
@@ -51,7 +51,7 @@ public class SoundControlUtils {
         }
     }
     public static void writeInt(String path, int value) {
-        FileUtils.writeLine(path, String.valueOf(value));
+        FileUtils.writeLineAsync(path, String.valueOf(value));
     }
     public static int[] readHeadphoneGain(String path) {
         try {
@@ -62,7 +62,7 @@ public class SoundControlUtils {
         }
     }
     public static void writeHeadphoneGain(String path, int left, int right) {
-        FileUtils.writeLine(path, left + " " + right);
+        FileUtils.writeLineAsync(path, left + " " + right);
     }
 
     public static boolean isEnabled(Context ctx) {
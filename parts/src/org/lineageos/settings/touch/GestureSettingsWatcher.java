@@ -0,0 +1,148 @@
+/*
+ * Copyright (C) 2025 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lineageos.settings.touch;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.database.ContentObserver;
+import android.os.Handler;
+import android.provider.Settings;
+import android.util.ArrayMap;
+import android.util.Log;
+
+import org.lineageos.settings.utils.HardwareExecutor;
+
+import java.util.ArrayList;
+
+/**
+ * Maps Settings.Secure gesture switches to touchfeature modes.
+ *
+ * A single observer is registered per setting, on the hardware looper. On
+ * change the setting is read once and, if its value actually changed, every
+ * mode bound to it is requested from {@link TouchFeatureClient}.
+ */
+public final class GestureSettingsWatcher {
+    private static final String TAG = "GestureSettingsWatcher";
+
+    private static GestureSettingsWatcher sInstance;
+
+    private final ContentResolver mResolver;
+    private final Handler mHandler;
+
+    /* setting -> observer, only touched on the handler thread */
+    private final ArrayMap<String, SettingObserver> mObservers = new ArrayMap<>();
+
+    private static final class Binding {
+        final String producer;
+        final int[] modes;
+
+        Binding(String producer, int[] modes) {
+            this.producer = producer;
+            this.modes = modes;
+        }
+    }
+
+    private final class SettingObserver extends ContentObserver {
+        final String setting;
+        final ArrayList<Binding> bindings = new ArrayList<>();
+        int value = -1;
+
+        SettingObserver(String setting) {
+            super(mHandler);
+            this.setting = setting;
+        }
+
+        @Override
+        public void onChange(boolean selfChange) {
+            update(false);
+        }
+
+        void update(boolean force) {
+            final int newValue = Settings.Secure.getInt(mResolver, setting, 0) == 1 ? 1 : 0;
+            if (!force && newValue == value) return;
+            Log.d(TAG, setting + " changed to " + newValue);
+            value = newValue;
+            for (Binding binding : bindings) {
+                apply(binding);
+            }
+        }
+
+        void apply(Binding binding) {
+            final TouchFeatureClient client = TouchFeatureClient.getInstance();
+            for (int mode : binding.modes) {
+                client.setTouchMode(binding.producer, mode, value);
+            }
+        }
+    }
+
+    private GestureSettingsWatcher(Context context) {
+        mResolver = context.getContentResolver();
+        mHandler = HardwareExecutor.getHandler();
+    }
+
+    public static synchronized GestureSettingsWatcher getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new GestureSettingsWatcher(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    /**
+     * Binds the given Settings.Secure switch to touch modes. The modes are set
+     * to 1 while the switch is on and 0 while it is off. Adding a producer
+     * again replaces its previous binding.
+     *
+     * @param producer requester name passed on to {@link TouchFeatureClient}
+     */
+    public void addGesture(String producer, String setting, int... modes) {
+        final Binding binding = new Binding(producer, modes);
+        mHandler.post(() -> {
+            removeBindings(producer);
+            SettingObserver observer = mObservers.get(setting);
+            if (observer == null) {
+                observer = new SettingObserver(setting);
+                mObservers.put(setting, observer);
+                mResolver.registerContentObserver(Settings.Secure.getUriFor(setting),
+                        true, observer);
+                observer.bindings.add(binding);
+                observer.update(true);
+            } else {
+                observer.bindings.add(binding);
+                observer.apply(binding);
+            }
+        });
+    }
+
+    /**
+     * Unbinds the given producer. Settings no longer bound to any producer
+     * stop being observed, the modes keep their last value.
+     */
+    public void removeGesture(String producer) {
+        mHandler.post(() -> removeBindings(producer));
+    }
+
+    private void removeBindings(String producer) {
+        for (int i = mObservers.size() - 1; i >= 0; i--) {
+            final SettingObserver observer = mObservers.valueAt(i);
+            observer.bindings.removeIf(binding -> binding.producer.equals(producer));
+            if (observer.bindings.isEmpty()) {
+                mResolver.unregisterContentObserver(observer);
+                mObservers.removeAt(i);
+            }
+        }
+    }
+}
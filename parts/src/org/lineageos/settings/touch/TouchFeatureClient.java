@@ -0,0 +1,176 @@
+/*
+ * Copyright (C) 2025 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lineageos.settings.touch;
+
+import android.os.Binder;
+import android.os.IBinder;
+import android.os.IServiceCallback;
+import android.os.RemoteException;
+import android.os.ServiceManager;
+import android.util.ArrayMap;
+import android.util.Log;
+import android.util.SparseArray;
+import android.util.SparseIntArray;
+
+import org.lineageos.settings.utils.HardwareExecutor;
+
+import vendor.xiaomi.hw.touchfeature.ITouchFeature;
+
+/**
+ * Shared, lazily connected client of the touchfeature HAL.
+ *
+ * The connection is made asynchronously through a service registration
+ * callback, so no caller ever blocks waiting for the HAL.
+ *
+ * Several producers may request a value for the same mode. The client keeps
+ * a table of all requests, the effective value of a mode is the highest value
+ * requested by any producer. Changes are flushed in one pass on the
+ * {@link HardwareExecutor} thread, only sending modes whose effective value
+ * differs from what the HAL last got. Everything is replayed whenever the HAL
+ * (re)appears.
+ */
+public final class TouchFeatureClient {
+    private static final String TAG = "TouchFeatureClient";
+    private static final String SERVICE_NAME = ITouchFeature.DESCRIPTOR + "/default";
+    private static final int TOUCH_ID = 0;
+
+    private static TouchFeatureClient sInstance;
+
+    /* mode -> (producer -> requested value), guarded by mRequests */
+    private final SparseArray<ArrayMap<String, Integer>> mRequests = new SparseArray<>();
+
+    /* mode -> value last sent to the HAL, only touched on the executor thread */
+    private final SparseIntArray mApplied = new SparseIntArray();
+
+    private ITouchFeature mTouchFeature;
+    private boolean mRegistered;
+
+    private final Runnable mFlushRunnable = this::flush;
+
+    private final IServiceCallback mServiceCallback = new IServiceCallback.Stub() {
+        @Override
+        public void onRegistration(String name, IBinder binder) {
+            HardwareExecutor.execute(() -> onServiceRegistered(binder));
+        }
+    };
+
+    private final IBinder.DeathRecipient mDeathRecipient = new IBinder.DeathRecipient() {
+        @Override
+        public void binderDied() {
+            Log.w(TAG, "touchfeature HAL died, waiting for it to come back");
+            HardwareExecutor.execute(() -> {
+                mTouchFeature = null;
+                mApplied.clear();
+            });
+        }
+    };
+
+    private TouchFeatureClient() {
+    }
+
+    public static synchronized TouchFeatureClient getInstance() {
+        if (sInstance == null) {
+            sInstance = new TouchFeatureClient();
+        }
+        return sInstance;
+    }
+
+    /**
+     * Records the value the given producer wants for a mode and schedules a flush.
+     *
+     * @param producer identifies the requester, e.g. the feature name
+     */
+    public void setTouchMode(String producer, int mode, int value) {
+        synchronized (mRequests) {
+            ArrayMap<String, Integer> requests = mRequests.get(mode);
+            if (requests == null) {
+                requests = new ArrayMap<>();
+                mRequests.put(mode, requests);
+            }
+            requests.put(producer, value);
+        }
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        // Keyed, so a burst of requests ends up in a single pass
+        HardwareExecutor.execute(TAG, mFlushRunnable);
+    }
+
+    private void flush() {
+        ensureConnected();
+        if (mTouchFeature == null) return;
+
+        final SparseIntArray effective = new SparseIntArray();
+        synchronized (mRequests) {
+            for (int i = 0; i < mRequests.size(); i++) {
+                final ArrayMap<String, Integer> requests = mRequests.valueAt(i);
+                if (requests.isEmpty()) continue;
+                int value = Integer.MIN_VALUE;
+                for (int j = 0; j < requests.size(); j++) {
+                    value = Math.max(value, requests.valueAt(j));
+                }
+                effective.put(mRequests.keyAt(i), value);
+            }
+        }
+
+        for (int i = 0; i < effective.size(); i++) {
+            final int mode = effective.keyAt(i);
+            final int value = effective.valueAt(i);
+            final int index = mApplied.indexOfKey(mode);
+            if (index >= 0 && mApplied.valueAt(index) == value) continue;
+            if (apply(mode, value)) {
+                mApplied.put(mode, value);
+            }
+        }
+    }
+
+    private void ensureConnected() {
+        if (mRegistered) return;
+        try {
+            // Called back immediately if the HAL is already up and on every restart
+            ServiceManager.registerForNotifications(SERVICE_NAME, mServiceCallback);
+            mRegistered = true;
+        } catch (RemoteException e) {
+            Log.e(TAG, "Failed to register for " + SERVICE_NAME, e);
+        }
+    }
+
+    private void onServiceRegistered(IBinder binder) {
+        if (mTouchFeature != null && mTouchFeature.asBinder() == binder) return;
+        try {
+            binder.linkToDeath(mDeathRecipient, 0);
+        } catch (RemoteException e) {
+            Log.e(TAG, "touchfeature HAL died while connecting", e);
+            return;
+        }
+        mTouchFeature = ITouchFeature.Stub.asInterface(Binder.allowBlocking(binder));
+        Log.i(TAG, "Connected to touchfeature HAL, replaying requested modes");
+        mApplied.clear();
+        flush();
+    }
+
+    private boolean apply(int mode, int value) {
+        try {
+            mTouchFeature.setTouchMode(TOUCH_ID, mode, value);
+            return true;
+        } catch (RemoteException e) {
+            Log.e(TAG, "setTouchMode(" + mode + ", " + value + ") failed", e);
+            return false;
+        }
+    }
+}
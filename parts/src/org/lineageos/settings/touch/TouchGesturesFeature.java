@@ -0,0 +1,64 @@
+/*
+ * Copyright (C) 2025 kenway214
+ * Copyright (C) 2025 GuidixX
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lineageos.settings.touch;
+
+import android.content.Context;
+import android.os.Handler;
+import android.provider.Settings;
+
+import org.lineageos.settings.PartsFeature;
+
+/**
+ * Touchfeature modes for tap gestures and the under display fingerprint.
+ */
+public class TouchGesturesFeature extends PartsFeature {
+    private static final String DOUBLE_TAP = "DoubleTapService";
+    private static final String SINGLE_TAP = "SingleTapService";
+    private static final String SO_FOD = "SoFodTouchService";
+
+    private static final int TOUCH_FOD_ENABLE = 10;
+    private static final int TOUCH_AOD_ENABLE = 11;
+    private static final int DOUBLE_TAP_TO_WAKE = 14;
+    private static final int TOUCH_FODICON_ENABLE = 16;
+    private static final int SINGLE_TAP_TO_WAKE = 21;
+
+    public TouchGesturesFeature(Context context, Handler handler) {
+        super(context, handler);
+    }
+
+    @Override
+    public void onStart() {
+        final GestureSettingsWatcher watcher = GestureSettingsWatcher.getInstance(mContext);
+        watcher.addGesture(DOUBLE_TAP, Settings.Secure.DOZE_DOUBLE_TAP_GESTURE,
+                DOUBLE_TAP_TO_WAKE, TOUCH_AOD_ENABLE);
+        watcher.addGesture(SINGLE_TAP, Settings.Secure.DOZE_TAP_SCREEN_GESTURE,
+                SINGLE_TAP_TO_WAKE, TOUCH_AOD_ENABLE);
+
+        // The tap gestures own TOUCH_AOD_ENABLE, a request here would pin it on
+        final TouchFeatureClient client = TouchFeatureClient.getInstance();
+        client.setTouchMode(SO_FOD, TOUCH_FOD_ENABLE, 1);
+        client.setTouchMode(SO_FOD, TOUCH_FODICON_ENABLE, 1);
+    }
+
+    @Override
+    public void onStop() {
+        final GestureSettingsWatcher watcher = GestureSettingsWatcher.getInstance(mContext);
+        watcher.removeGesture(DOUBLE_TAP);
+        watcher.removeGesture(SINGLE_TAP);
+    }
+}
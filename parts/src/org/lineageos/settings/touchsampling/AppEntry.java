@@ -0,0 +1,40 @@
+/*
+ * Copyright (C) 2025 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lineageos.settings.touchsampling;
+
+import android.graphics.drawable.Drawable;
+
+/**
+ * An app shown in the per-app touch sampling list, with its label, icon and
+ * search keys prepared once in the background.
+ */
+final class AppEntry {
+    final String packageName;
+    final CharSequence label;
+    final Drawable icon;
+    /* Normalized for {@link AppSearchIndex} */
+    final String searchLabel;
+    final String searchPackage;
+
+    AppEntry(String packageName, CharSequence label, Drawable icon) {
+        this.packageName = packageName;
+        this.label = label;
+        this.icon = icon;
+        searchLabel = AppSearchIndex.normalize(label);
+        searchPackage = AppSearchIndex.normalize(packageName);
+    }
+}
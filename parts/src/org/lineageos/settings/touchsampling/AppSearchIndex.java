@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2025 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lineageos.settings.touchsampling;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Searches apps by label and package name.
+ *
+ * Labels and package names are normalized once when the app is added.
+ * Apps whose label, or a word of it, starts with the query come first,
+ * followed by apps that only contain it. A query that extends the previous
+ * one only looks at the previous results.
+ */
+final class AppSearchIndex {
+
+    private final ArrayList<AppEntry> mApps = new ArrayList<>();
+
+    private String mLastQuery;
+    private List<AppEntry> mLastResults;
+
+    /**
+     * Lowercases the text and strips diacritics, so "É" matches "e".
+     */
+    static String normalize(CharSequence text) {
+        final String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        final StringBuilder sb = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            final char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                sb.append(c);
+            }
+        }
+        return sb.toString().toLowerCase(Locale.ROOT);
+    }
+
+    void addAll(List<AppEntry> apps) {
+        mApps.addAll(apps);
+        // New apps are not part of the previous results
+        mLastQuery = null;
+        mLastResults = null;
+    }
+
+    /**
+     * Returns the apps matching the query, best matches first.
+     */
+    List<AppEntry> search(String query) {
+        final String normalized = normalize(query.trim());
+        final List<AppEntry> candidates = mLastQuery != null && normalized.startsWith(mLastQuery)
+                ? mLastResults : mApps;
+
+        final List<AppEntry> results;
+        if (normalized.isEmpty()) {
+            results = new ArrayList<>(mApps);
+        } else {
+            results = new ArrayList<>();
+            final ArrayList<AppEntry> substringMatches = new ArrayList<>();
+            for (int i = 0; i < candidates.size(); i++) {
+                final AppEntry app = candidates.get(i);
+                if (isPrefixMatch(app.searchLabel, normalized)) {
+                    results.add(app);
+                } else if (app.searchLabel.contains(normalized)
+                        || app.searchPackage.contains(normalized)) {
+                    substringMatches.add(app);
+                }
+            }
+            results.addAll(substringMatches);
+        }
+        mLastQuery = normalized;
+        mLastResults = results;
+        return results;
+    }
+
+    private static boolean isPrefixMatch(String label, String query) {
+        if (label.startsWith(query)) return true;
+        for (int i = label.indexOf(' '); i >= 0; i = label.indexOf(' ', i + 1)) {
+            if (label.startsWith(query, i + 1)) return true;
+        }
+        return false;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2025 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lineageos.settings.touchsampling;
+
+import android.app.ActivityManager;
+import android.app.ActivityTaskManager;
+import android.app.TaskStackListener;
+import android.content.ComponentName;
+import android.os.Handler;
+import android.os.RemoteException;
+import android.util.Log;
+
+import java.util.Objects;
+
+/**
+ * Tracks the package of the focused task using task stack callbacks from
+ * ActivityTaskManager, so that no periodic polling is needed.
+ */
+public final class ForegroundAppTracker {
+    private static final String TAG = "ForegroundAppTracker";
+
+    public interface Callback {
+        void onForegroundAppChanged(String packageName);
+    }
+
+    private final Handler mHandler;
+    private final Callback mCallback;
+
+    private final Runnable mRefreshRunnable = () -> refresh(true);
+
+    private boolean mListening;
+    private String mForegroundApp;
+
+    private final TaskStackListener mTaskStackListener = new TaskStackListener() {
+        @Override
+        public void onTaskMovedToFront(ActivityManager.RunningTaskInfo taskInfo) {
+            final ComponentName top = taskInfo != null ? taskInfo.topActivity : null;
+            if (top != null) {
+                mHandler.post(() -> setForegroundApp(top.getPackageName()));
+            }
+        }
+
+        @Override
+        public void onTaskStackChanged() {
+            // Covers tasks being removed, which reveals the task below
+            // without a move-to-front callback. Bursts collapse into one query.
+            mHandler.removeCallbacks(mRefreshRunnable);
+            mHandler.post(mRefreshRunnable);
+        }
+    };
+
+    /**
+     * @param handler handler on which the callback is invoked
+     * @param callback receives the new package whenever the focused app changes
+     */
+    public ForegroundAppTracker(Handler handler, Callback callback) {
+        mHandler = handler;
+        mCallback = callback;
+    }
+
+    /**
+     * Starts listening for task stack changes. Must be called on the handler thread.
+     */
+    public void start() {
+        if (mListening) return;
+        try {
+            ActivityTaskManager.getService().registerTaskStackListener(mTaskStackListener);
+            mListening = true;
+        } catch (RemoteException e) {
+            Log.e(TAG, "Failed to register task stack listener", e);
+            return;
+        }
+        // Seed the current state without notifying, the caller is already applying it
+        refresh(false);
+    }
+
+    /**
+     * Stops listening and forgets the last known foreground app.
+     */
+    public void stop() {
+        if (!mListening) return;
+        try {
+            ActivityTaskManager.getService().unregisterTaskStackListener(mTaskStackListener);
+        } catch (RemoteException e) {
+            Log.e(TAG, "Failed to unregister task stack listener", e);
+        }
+        mHandler.removeCallbacks(mRefreshRunnable);
+        mListening = false;
+        mForegroundApp = null;
+    }
+
+    public boolean isListening() {
+        return mListening;
+    }
+
+    /**
+     * Returns the last known foreground package, or null if unknown or not listening.
+     */
+    public String getForegroundApp() {
+        return mForegroundApp;
+    }
+
+    private void refresh(boolean notify) {
+        if (!mListening) return;
+        try {
+            ActivityTaskManager.RootTaskInfo info =
+                    ActivityTaskManager.getService().getFocusedRootTaskInfo();
+            if (info == null || info.topActivity == null) return;
+            if (notify) {
+                setForegroundApp(info.topActivity.getPackageName());
+            } else {
+                mForegroundApp = info.topActivity.getPackageName();
+            }
+        } catch (RemoteException e) {
+            Log.e(TAG, "Failed to query focused task", e);
+        }
+    }
+
+    private void setForegroundApp(String packageName) {
+        if (!mListening || Objects.equals(mForegroundApp, packageName)) return;
+        mForegroundApp = packageName;
+        mCallback.onForegroundAppChanged(packageName);
+    }
+}
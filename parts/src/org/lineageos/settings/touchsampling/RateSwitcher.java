@@ -0,0 +1,98 @@
+/*
+ * Copyright (C) 2025 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lineageos.settings.touchsampling;
+
+import android.os.Handler;
+
+/**
+ * Debounces touch report rate switches.
+ *
+ * A requested rate is only committed once it was requested continuously for
+ * the enter delay when raising the rate, or for the exit delay when lowering
+ * it. Requests that change in between restart the wait, and a request for
+ * the committed rate drops the pending one, so quick app switches never
+ * reach the touch controller.
+ */
+final class RateSwitcher {
+
+    interface Callback {
+        /** Called on the handler thread with the newly committed rate. */
+        void onRateChanged(int rate);
+    }
+
+    private static final int RATE_UNKNOWN = Integer.MIN_VALUE;
+
+    private final Handler mHandler;
+    private final long mEnterDelayMs;
+    private final long mExitDelayMs;
+    private final Callback mCallback;
+
+    private int mRate = RATE_UNKNOWN;
+    private int mPendingRate = RATE_UNKNOWN;
+
+    private final Runnable mCommitRunnable = () -> commit(mPendingRate);
+
+    RateSwitcher(Handler handler, long enterDelayMs, long exitDelayMs, Callback callback) {
+        mHandler = handler;
+        mEnterDelayMs = enterDelayMs;
+        mExitDelayMs = exitDelayMs;
+        mCallback = callback;
+    }
+
+    /**
+     * Requests a rate. Must be called on the handler thread.
+     *
+     * @param immediate commit without waiting, e.g. for an explicit user choice
+     */
+    void request(int rate, boolean immediate) {
+        if (rate == mRate) {
+            cancel();
+            return;
+        }
+        if (immediate || mRate == RATE_UNKNOWN) {
+            cancel();
+            commit(rate);
+            return;
+        }
+        if (rate == mPendingRate) return;
+        mHandler.removeCallbacks(mCommitRunnable);
+        mPendingRate = rate;
+        mHandler.postDelayed(mCommitRunnable, rate > mRate ? mEnterDelayMs : mExitDelayMs);
+    }
+
+    /**
+     * Returns the committed rate, or {@link TouchProfileStore#RATE_STANDARD}
+     * if none was committed yet.
+     */
+    int getRate() {
+        return mRate == RATE_UNKNOWN ? TouchProfileStore.RATE_STANDARD : mRate;
+    }
+
+    /**
+     * Drops the pending request, if any.
+     */
+    void cancel() {
+        mHandler.removeCallbacks(mCommitRunnable);
+        mPendingRate = RATE_UNKNOWN;
+    }
+
+    private void commit(int rate) {
+        mPendingRate = RATE_UNKNOWN;
+        mRate = rate;
+        mCallback.onRateChanged(rate);
+    }
+}
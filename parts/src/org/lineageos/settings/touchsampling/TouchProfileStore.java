@@ -0,0 +1,261 @@
+/*
+ * Copyright (C) 2025 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lineageos.settings.touchsampling;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.util.AtomicFile;
+import android.util.Log;
+
+import androidx.preference.PreferenceManager;
+
+import com.android.internal.os.BackgroundThread;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Per-app touch sampling profiles.
+ *
+ * A profile maps a package to the report rate written to the touch node
+ * while it is in the foreground. Profiles are indexed in an immutable hash
+ * map that is replaced on every edit, so lookups never block or parse
+ * anything. The store is the only source of truth, it is persisted to its
+ * own file which is replaced atomically. Edits are flushed in batches, a
+ * burst of edits results in a single write.
+ */
+public final class TouchProfileStore {
+    private static final String TAG = "TouchProfileStore";
+
+    /** No profile, the app follows the main switch. */
+    public static final int RATE_DEFAULT = -1;
+    public static final int RATE_STANDARD = 0;
+    public static final int RATE_HIGH = 1;
+
+    public interface OnProfilesChangedListener {
+        /** Called on the thread that made the edit. */
+        void onProfilesChanged();
+    }
+
+    private static final String FILE_NAME = "touch_profiles.bin";
+    private static final String UNREADABLE_SUFFIX = ".unreadable";
+    private static final int FILE_VERSION = 1;
+    private static final long FLUSH_DELAY_MS = 2000;
+
+    /* Where profiles were kept before they got their own file */
+    private static final String PREF_APP_PROFILES = "htsr_app_profiles";
+    private static final String PREF_AUTO_APPS = "htsr_auto_apps";
+
+    private static TouchProfileStore sInstance;
+
+    private final AtomicFile mFile;
+    private final SharedPreferences mPrefs;
+    private final Handler mFlushHandler = BackgroundThread.getHandler();
+    private final CopyOnWriteArrayList<OnProfilesChangedListener> mListeners =
+            new CopyOnWriteArrayList<>();
+
+    /* Immutable once published, null until loaded */
+    private volatile Map<String, Integer> mIndex;
+    /* The file could not be read, it is kept aside before the first write */
+    private boolean mUnreadable;
+
+    private final Runnable mFlushRunnable = this::flush;
+
+    private TouchProfileStore(Context context) {
+        mFile = new AtomicFile(new File(context.getFilesDir(), FILE_NAME));
+        mPrefs = PreferenceManager.getDefaultSharedPreferences(context);
+    }
+
+    public static synchronized TouchProfileStore getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new TouchProfileStore(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    public void addListener(OnProfilesChangedListener listener) {
+        mListeners.addIfAbsent(listener);
+    }
+
+    public void removeListener(OnProfilesChangedListener listener) {
+        mListeners.remove(listener);
+    }
+
+    /**
+     * Returns the report rate of the given package, or {@link #RATE_DEFAULT}.
+     */
+    public int getRate(String packageName) {
+        final Integer rate = getIndex().get(packageName);
+        return rate != null ? rate : RATE_DEFAULT;
+    }
+
+    public boolean isEmpty() {
+        return getIndex().isEmpty();
+    }
+
+    /**
+     * Sets the report rate of the given package, {@link #RATE_DEFAULT}
+     * removes its profile. The change is visible at once and written to
+     * disk shortly after, together with any further edits.
+     */
+    public void setRate(String packageName, int rate) {
+        synchronized (this) {
+            final Map<String, Integer> current = getIndex();
+            final Integer old = current.get(packageName);
+            if (old == null ? rate == RATE_DEFAULT : old == rate) return;
+            final HashMap<String, Integer> index = new HashMap<>(current);
+            if (rate == RATE_DEFAULT) {
+                index.remove(packageName);
+            } else {
+                index.put(packageName, rate);
+            }
+            mIndex = Collections.unmodifiableMap(index);
+            mFlushHandler.removeCallbacks(mFlushRunnable);
+            mFlushHandler.postDelayed(mFlushRunnable, FLUSH_DELAY_MS);
+        }
+        for (OnProfilesChangedListener listener : mListeners) {
+            listener.onProfilesChanged();
+        }
+    }
+
+    /**
+     * Writes pending edits now instead of waiting for the batch to fill up,
+     * e.g. when the screen editing them goes away.
+     */
+    public void flushSoon() {
+        if (mFlushHandler.hasCallbacks(mFlushRunnable)) {
+            mFlushHandler.removeCallbacks(mFlushRunnable);
+            mFlushHandler.post(mFlushRunnable);
+        }
+    }
+
+    private Map<String, Integer> getIndex() {
+        final Map<String, Integer> index = mIndex;
+        return index != null ? index : load();
+    }
+
+    private synchronized Map<String, Integer> load() {
+        if (mIndex != null) return mIndex;
+        HashMap<String, Integer> index;
+        try {
+            index = read();
+            if (index == null) {
+                index = migrate();
+                write(index);
+            }
+        } catch (IOException e) {
+            // Nothing is written until the profiles are edited
+            Log.e(TAG, "Failed to read profiles", e);
+            index = new HashMap<>();
+            mUnreadable = true;
+        }
+        mIndex = Collections.unmodifiableMap(index);
+        return mIndex;
+    }
+
+    private void flush() {
+        write(getIndex());
+    }
+
+    /**
+     * Reads the profiles file, returns null if there is none.
+     *
+     * @throws IOException if the file is truncated or of an unknown version
+     */
+    private HashMap<String, Integer> read() throws IOException {
+        if (!mFile.exists()) return null;
+        final HashMap<String, Integer> index = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(mFile.openRead())) {
+            final int version = in.readInt();
+            if (version != FILE_VERSION) {
+                throw new IOException("Unknown profiles version " + version);
+            }
+            for (int count = in.readInt(); count > 0; count--) {
+                final String packageName = in.readUTF();
+                index.put(packageName, (int) in.readByte());
+            }
+        }
+        return index;
+    }
+
+    private synchronized void write(Map<String, Integer> index) {
+        if (mUnreadable) {
+            // Do not destroy profiles a newer version or a repair could still read
+            final File base = mFile.getBaseFile();
+            final File aside = new File(base.getPath() + UNREADABLE_SUFFIX);
+            if (!base.renameTo(aside)) {
+                Log.w(TAG, "Failed to keep unreadable profiles as " + aside);
+            }
+            mUnreadable = false;
+        }
+        FileOutputStream out = null;
+        try {
+            out = mFile.startWrite();
+            final DataOutputStream data = new DataOutputStream(out);
+            data.writeInt(FILE_VERSION);
+            data.writeInt(index.size());
+            for (Map.Entry<String, Integer> entry : index.entrySet()) {
+                data.writeUTF(entry.getKey());
+                data.writeByte(entry.getValue());
+            }
+            data.flush();
+            mFile.finishWrite(out);
+        } catch (IOException e) {
+            Log.e(TAG, "Failed to write profiles", e);
+            mFile.failWrite(out);
+        }
+    }
+
+    /**
+     * Takes over profiles kept in the default preferences by older versions.
+     */
+    private HashMap<String, Integer> migrate() {
+        final HashMap<String, Integer> index = new HashMap<>();
+        final Set<String> entries = mPrefs.getStringSet(PREF_APP_PROFILES, null);
+        if (entries != null) {
+            for (String entry : entries) {
+                final int separator = entry.lastIndexOf('=');
+                try {
+                    index.put(entry.substring(0, separator),
+                            Integer.parseInt(entry.substring(separator + 1)));
+                } catch (IndexOutOfBoundsException | NumberFormatException e) {
+                    Log.w(TAG, "Ignoring invalid profile " + entry);
+                }
+            }
+        }
+        // Apps picked before profiles existed always got the high rate
+        final Set<String> autoApps = mPrefs.getStringSet(PREF_AUTO_APPS, null);
+        if (autoApps != null) {
+            for (String packageName : autoApps) {
+                index.putIfAbsent(packageName, RATE_HIGH);
+            }
+        }
+        if (entries != null || autoApps != null) {
+            mPrefs.edit().remove(PREF_APP_PROFILES).remove(PREF_AUTO_APPS).apply();
+        }
+        return index;
+    }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright (C) 2025 The LineageOS Project
+ * Copyright (C) 2025 kenway214
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lineageos.settings.touchsampling;
+
+import android.content.Context;
+import android.content.Intent;
+import android.content.SharedPreferences;
+import android.os.FileObserver;
+import android.os.Handler;
+import android.util.Log;
+import android.app.Notification;
+import android.app.NotificationChannel;
+import android.app.NotificationManager;
+import android.app.PendingIntent;
+
+import org.lineageos.settings.PartsFeature;
+import org.lineageos.settings.R;
+import org.lineageos.settings.utils.HardwareExecutor;
+import org.lineageos.settings.utils.PreferenceSnapshot;
+
+public class TouchSamplingFeature extends PartsFeature {
+    private static final String TAG = "TouchSamplingFeature";
+    private static final boolean DEBUG = false;
+
+    private PreferenceSnapshot<TouchSamplingSettings> mSettings;
+    private TouchProfileStore.OnProfilesChangedListener mProfilesChangedListener;
+    private FileObserver mSconfigObserver;
+    private ForegroundAppTracker mForegroundAppTracker;
+    private NotificationManager mNotificationManager;
+    private TouchProfileStore mProfileStore;
+    private RateSwitcher mRateSwitcher;
+    /* Survives a forced write being replaced by a later pending one */
+    private volatile boolean mForceWrite;
+    private static final int NOTIFICATION_ID = 3;
+    private static final String NOTIFICATION_CHANNEL_ID = "touch_sampling_tile_service_channel";
+
+    public TouchSamplingFeature(Context context, Handler handler) {
+        super(context, handler);
+    }
+
+    @Override
+    public void onStart() {
+        Log.d(TAG, "Touch sampling feature started");
+
+        mNotificationManager = mContext.getSystemService(NotificationManager.class);
+        mProfileStore = TouchProfileStore.getInstance(mContext);
+        setupNotificationChannel();
+
+        // Resolve the touch controller node once, off the main thread
+        TouchSamplingUtils.getNode();
+
+        // Only touch the node and notification once the rate settled
+        mRateSwitcher = new RateSwitcher(mHandler,
+                mContext.getResources().getInteger(R.integer.config_touchSamplingEnterDelayMs),
+                mContext.getResources().getInteger(R.integer.config_touchSamplingExitDelayMs),
+                rate -> {
+                    Log.d(TAG, "Touch sampling rate changed to " + rate);
+                    applyTouchSamplingRate(rate, false);
+                    updateNotification(rate != TouchProfileStore.RATE_STANDARD);
+                });
+
+        // Track the foreground app through task stack callbacks
+        mForegroundAppTracker = new ForegroundAppTracker(mHandler, packageName -> {
+            if (DEBUG) Log.d(TAG, "Foreground app changed to " + packageName);
+            updateEffectiveStateAndApply(false);
+        });
+
+        // Initialize and register the SharedPreferences listener
+        registerPreferenceChangeListener();
+
+        // Apply the touch sampling rate initially
+        updateEffectiveStateAndApply(true);
+
+        // Start a FileObserver to watch the sconfig file changes
+        mSconfigObserver = new FileObserver(TouchSamplingUtils.SCONFIG_FILE, FileObserver.MODIFY) {
+            @Override
+            public void onEvent(int event, String path) {
+                if ((event & FileObserver.MODIFY) != 0) {
+                    Log.d(TAG, "sconfig file modified. Updating touch sampling rate.");
+                    mHandler.post(() -> updateEffectiveStateAndApply(false));
+                }
+            }
+        };
+        mSconfigObserver.startWatching();
+    }
+
+    @Override
+    public void onStop() {
+        Log.d(TAG, "Touch sampling feature stopped");
+
+        // Stop following the preferences
+        mSettings.release();
+        mProfileStore.removeListener(mProfilesChangedListener);
+
+        // Stop watching sconfig file changes
+        if (mSconfigObserver != null) {
+            mSconfigObserver.stopWatching();
+        }
+        if (mForegroundAppTracker != null) {
+            mForegroundAppTracker.stop();
+        }
+        if (mRateSwitcher != null) {
+            mRateSwitcher.cancel();
+        }
+    }
+
+    @Override
+    public void onScreenOn() {
+        Log.d(TAG, "Screen turned on. Reapplying touch sampling rate.");
+        reapplyTouchSamplingRate();
+    }
+
+    @Override
+    public void onUserPresent() {
+        Log.d(TAG, "Device unlocked. Updating touch sampling rate.");
+        updateEffectiveStateAndApply(false);
+    }
+
+    /**
+     * Follows the touch sampling settings through an immutable snapshot.
+     */
+    private void registerPreferenceChangeListener() {
+        SharedPreferences sharedPref = mContext.getSharedPreferences(TouchSamplingSettingsFragment.SHAREDHTSR, Context.MODE_PRIVATE);
+        mSettings = new PreferenceSnapshot<>(sharedPref, TouchSamplingSettings.KEYS,
+                TouchSamplingSettings::new);
+        mSettings.setListener(settings -> {
+            Log.d(TAG, "Preferences changed. Reapplying touch sampling rate.");
+            mHandler.post(() -> updateEffectiveStateAndApply(true));
+        });
+
+        // The per-app profiles live in their own store
+        mProfilesChangedListener = () -> {
+            Log.d(TAG, "Per-app profiles changed. Reapplying touch sampling rate.");
+            mHandler.post(() -> updateEffectiveStateAndApply(true));
+        };
+        mProfileStore.addListener(mProfilesChangedListener);
+    }
+
+    /**
+     * Reads the touch sampling rate preferences and requests the effective rate.
+     *
+     * @param immediate whether to skip debouncing, for explicit user changes
+     */
+    private void updateEffectiveStateAndApply(boolean immediate) {
+        updateForegroundTracking();
+        mRateSwitcher.request(getEffectiveRate(mForegroundAppTracker.getForegroundApp()),
+                immediate);
+    }
+
+    /**
+     * Rewrites the committed rate, the driver resets the node while the screen is off.
+     */
+    private void reapplyTouchSamplingRate() {
+        applyTouchSamplingRate(mRateSwitcher.getRate(), true);
+        updateEffectiveStateAndApply(false);
+    }
+
+    /**
+     * Listens for task stack changes only while per-app profiles decide the state.
+     */
+    private void updateForegroundTracking() {
+        if (mSettings.get().autoEnableApps && !mProfileStore.isEmpty()) {
+            mForegroundAppTracker.start();
+        } else {
+            mForegroundAppTracker.stop();
+        }
+    }
+
+    /**
+     * Applies the given touch sampling rate directly to the hardware file.
+     * Unless forced, a rate that was the last one written is skipped.
+     *
+     * @param state the report rate, one of the {@link TouchProfileStore} rates.
+     */
+    private void applyTouchSamplingRate(int state, boolean force) {
+        if (force) {
+            mForceWrite = true;
+        }
+        HardwareExecutor.execute(TouchSamplingUtils.HTSR_FILE, () -> {
+            final boolean forceWrite = mForceWrite;
+            mForceWrite = false;
+            TouchSamplingUtils.writeHtsrValue(Integer.toString(state), forceWrite);
+        });
+    }
+
+    private void updateNotification(boolean effectiveState) {
+        if (effectiveState) {
+            showTouchSamplingNotification();
+        } else {
+            cancelTouchSamplingNotification();
+        }
+    }
+    
+    private void setupNotificationChannel() {
+        NotificationChannel channel = new NotificationChannel(
+                NOTIFICATION_CHANNEL_ID,
+                mContext.getString(R.string.touch_sampling_mode_title),
+                NotificationManager.IMPORTANCE_DEFAULT
+        );
+        channel.setBlockable(true);
+        mNotificationManager.createNotificationChannel(channel);
+    }
+
+    private void showTouchSamplingNotification() {
+        Intent intent = new Intent(Intent.ACTION_POWER_USAGE_SUMMARY).addFlags(Intent.FLAG_ACTIVITY_NEW_TASK);
+        PendingIntent pendingIntent = PendingIntent.getActivity(mContext, 0, intent, PendingIntent.FLAG_IMMUTABLE);
+        Notification notification = new Notification.Builder(mContext, NOTIFICATION_CHANNEL_ID)
+                .setContentTitle(mContext.getString(R.string.touch_sampling_mode_title))
+                .setContentText(mContext.getString(R.string.touch_sampling_mode_notification))
+                .setSmallIcon(R.drawable.ic_touch_sampling_tile)
+                .setContentIntent(pendingIntent)
+                .setOngoing(true)
+                .setFlag(Notification.FLAG_NO_CLEAR, true)
+                .build();
+        mNotificationManager.notify(NOTIFICATION_ID, notification);
+    }
+
+    private void cancelTouchSamplingNotification() {
+        mNotificationManager.cancel(NOTIFICATION_ID);
+    }
+
+    /**
+     * Returns the report rate for the given foreground app. Its profile wins
+     * over the main switch, apps without one follow the main switch.
+     */
+    private int getEffectiveRate(String foregroundApp) {
+        TouchSamplingSettings settings = mSettings.get();
+        if (settings.autoEnableApps && foregroundApp != null) {
+            int rate = mProfileStore.getRate(foregroundApp);
+            if (rate != TouchProfileStore.RATE_DEFAULT) return rate;
+        }
+        return settings.mainEnabled ? TouchProfileStore.RATE_HIGH : TouchProfileStore.RATE_STANDARD;
+    }
+}
@@ -17,35 +17,48 @@
 package org.lineageos.settings.touchsampling;
 
 import android.content.pm.ApplicationInfo;
-import android.content.pm.PackageManager;
+import android.content.pm.PackageInfo;
+import android.graphics.drawable.BitmapDrawable;
 import android.os.Bundle;
+import android.os.Handler;
+import android.os.Looper;
+import androidx.preference.ListPreference;
 import androidx.preference.Preference;
 import androidx.preference.PreferenceCategory;
 import androidx.preference.PreferenceFragmentCompat;
-import androidx.preference.PreferenceManager;
-import androidx.preference.SwitchPreferenceCompat;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 import android.widget.EditText;
 import android.text.TextWatcher;
 import android.text.Editable;
 import android.view.LayoutInflater;
 import android.view.View;
 import android.view.ViewGroup;
-import android.os.Build;
 import android.widget.LinearLayout;
 import android.content.Context;
+import com.android.internal.os.BackgroundThread;
 import org.lineageos.settings.R;
+import org.lineageos.settings.utils.AppInfoCache;
 
 public class TouchSamplingPerAppConfigFragment extends PreferenceFragmentCompat {
-    public static final String PREF_AUTO_APPS = "htsr_auto_apps";
+
+    /* Apps loaded and shown per batch */
+    private static final int PAGE_SIZE = 20;
 
     private EditText mSearchBar;
     private PreferenceCategory mCategory;
-    private List<ApplicationInfo> mAllApps;
-    private PackageManager mPm;
-    private Set<String> mAutoApps;
+    private Preference mLoadingPreference;
+    private TouchProfileStore mProfileStore;
+    private final Handler mMainHandler = new Handler(Looper.getMainLooper());
+
+    /* Only touched on the main thread */
+    private final AppSearchIndex mSearchIndex = new AppSearchIndex();
+    private final HashMap<String, Preference> mPreferences = new HashMap<>();
+    private final HashSet<String> mShown = new HashSet<>();
+    private String mFilter = "";
+    private volatile boolean mDestroyed;
 
     @Override
     public View onCreateView(LayoutInflater inflater, ViewGroup container, Bundle savedInstanceState) {
@@ -72,7 +85,8 @@ public class TouchSamplingPerAppConfigFragment extends PreferenceFragmentCompat
         mSearchBar.addTextChangedListener(new TextWatcher() {
             @Override public void beforeTextChanged(CharSequence s, int start, int count, int after) {}
             @Override public void onTextChanged(CharSequence s, int start, int before, int count) {
-                populateAppList(s.toString().toLowerCase());
+                mFilter = s.toString();
+                populateAppList();
             }
             @Override public void afterTextChanged(Editable s) {}
         });
@@ -84,41 +98,131 @@ public class TouchSamplingPerAppConfigFragment extends PreferenceFragmentCompat
         setPreferenceScreen(getPreferenceManager().createPreferenceScreen(getContext()));
         mCategory = new PreferenceCategory(getContext());
         mCategory.setTitle(R.string.touch_sampling_per_app_title);
+        // Positions follow the search results
+        mCategory.setOrderingAsAdded(false);
         getPreferenceScreen().addPreference(mCategory);
-        mPm = requireContext().getPackageManager();
-        mAllApps = mPm.getInstalledApplications(PackageManager.GET_META_DATA);
-        mAutoApps = PreferenceManager.getDefaultSharedPreferences(getContext())
-                .getStringSet(PREF_AUTO_APPS, new HashSet<>());
-        populateAppList("");
+        mProfileStore = TouchProfileStore.getInstance(getContext());
+
+        mLoadingPreference = new Preference(getContext());
+        mLoadingPreference.setTitle(R.string.touch_sampling_loading_apps);
+        mLoadingPreference.setSelectable(false);
+        getPreferenceScreen().addPreference(mLoadingPreference);
+
+        final Context appContext = requireContext().getApplicationContext();
+        BackgroundThread.getHandler().post(() -> loadApps(appContext));
     }
 
-    private void populateAppList(String filter) {
-        mCategory.removeAll();
-        for (ApplicationInfo app : mAllApps) {
-            if ((app.flags & ApplicationInfo.FLAG_SYSTEM) != 0) continue;
-            if (app.packageName.equals(getContext().getPackageName())) continue;
-            String label = app.loadLabel(mPm).toString().toLowerCase();
-            String pkg = app.packageName.toLowerCase();
-            if (!filter.isEmpty() && !(label.contains(filter) || pkg.contains(filter))) continue;
-            SwitchPreferenceCompat pref = new SwitchPreferenceCompat(getContext());
-            pref.setTitle(app.loadLabel(mPm));
-            pref.setSummary(app.packageName);
-            pref.setKey("touchsampling_" + app.packageName);
-            pref.setChecked(mAutoApps.contains(app.packageName));
-            pref.setIcon(app.loadIcon(mPm));
-            pref.setOnPreferenceChangeListener((Preference p, Object newValue) -> {
-                Set<String> updated = new HashSet<>(PreferenceManager.getDefaultSharedPreferences(getContext())
-                        .getStringSet(PREF_AUTO_APPS, new HashSet<>()));
-                if ((Boolean) newValue) {
-                    updated.add(app.packageName);
-                } else {
-                    updated.remove(app.packageName);
-                }
-                PreferenceManager.getDefaultSharedPreferences(getContext())
-                        .edit().putStringSet(PREF_AUTO_APPS, updated).apply();
-                return true;
-            });
-            mCategory.addPreference(pref);
+    @Override
+    public void onPause() {
+        super.onPause();
+        mProfileStore.flushSoon();
+    }
+
+    @Override
+    public void onDestroy() {
+        mDestroyed = true;
+        mMainHandler.removeCallbacksAndMessages(null);
+        super.onDestroy();
+    }
+
+    /**
+     * Returns the apps that can be configured, i.e. user apps other than
+     * this one. May block, don't call it on the main thread.
+     */
+    static List<PackageInfo> getConfigurableApps(Context context) {
+        final List<PackageInfo> apps = new ArrayList<>();
+        for (PackageInfo info : context.getPackageManager().getInstalledPackages(0)) {
+            if (info.applicationInfo == null) continue;
+            if ((info.applicationInfo.flags & ApplicationInfo.FLAG_SYSTEM) != 0) continue;
+            if (info.packageName.equals(context.getPackageName())) continue;
+            apps.add(info);
         }
+        return apps;
+    }
+
+    /**
+     * Loads labels and icons on the background thread and hands them to the
+     * main thread in pages, so the list fills up while it is still loading.
+     */
+    private void loadApps(Context context) {
+        final AppInfoCache cache = AppInfoCache.getInstance(context);
+        List<AppEntry> page = new ArrayList<>(PAGE_SIZE);
+        for (PackageInfo info : getConfigurableApps(context)) {
+            if (mDestroyed) return;
+            final AppInfoCache.Entry entry = cache.get(info);
+            page.add(new AppEntry(info.packageName, entry.label,
+                    new BitmapDrawable(context.getResources(), entry.icon)));
+            if (page.size() == PAGE_SIZE) {
+                postPage(page, false);
+                page = new ArrayList<>(PAGE_SIZE);
+            }
+        }
+        postPage(page, true);
+    }
+
+    private void postPage(List<AppEntry> page, boolean last) {
+        mMainHandler.post(() -> {
+            if (mDestroyed) return;
+            mSearchIndex.addAll(page);
+            populateAppList();
+            if (last) {
+                getPreferenceScreen().removePreference(mLoadingPreference);
+            }
+        });
+    }
+
+    /**
+     * Shows the apps matching the filter. Rows are created once per app and
+     * only added, removed or reordered, so the list adapter sees a diff.
+     */
+    private void populateAppList() {
+        final List<AppEntry> results = mSearchIndex.search(mFilter);
+        final HashSet<String> shown = new HashSet<>(results.size() * 2);
+        for (int i = 0; i < results.size(); i++) {
+            final AppEntry app = results.get(i);
+            Preference pref = mPreferences.get(app.packageName);
+            if (pref == null) {
+                pref = createPreference(app);
+                mPreferences.put(app.packageName, pref);
+            }
+            if (pref.getOrder() != i) {
+                pref.setOrder(i);
+            }
+            if (!mShown.contains(app.packageName)) {
+                mCategory.addPreference(pref);
+            }
+            shown.add(app.packageName);
+        }
+        for (String packageName : mShown) {
+            if (!shown.contains(packageName)) {
+                mCategory.removePreference(mPreferences.get(packageName));
+            }
+        }
+        mShown.clear();
+        mShown.addAll(shown);
+    }
+
+    private Preference createPreference(AppEntry app) {
+        ListPreference pref = new ListPreference(getContext());
+        pref.setTitle(app.label);
+        pref.setDialogTitle(app.label);
+        pref.setKey("touchsampling_" + app.packageName);
+        // The profile store persists the rate
+        pref.setPersistent(false);
+        pref.setEntries(R.array.touch_sampling_rate_entries);
+        pref.setEntryValues(R.array.touch_sampling_rate_values);
+        pref.setValue(Integer.toString(mProfileStore.getRate(app.packageName)));
+        pref.setSummary(getString(R.string.touch_sampling_app_summary,
+                pref.getEntry(), app.packageName));
+        pref.setIcon(app.icon);
+        pref.setOnPreferenceChangeListener((Preference p, Object newValue) -> {
+            mProfileStore.setRate(app.packageName, Integer.parseInt((String) newValue));
+            ListPreference list = (ListPreference) p;
+            p.setSummary(getString(R.string.touch_sampling_app_summary,
+                    list.getEntries()[list.findIndexOfValue((String) newValue)],
+                    app.packageName));
+            return true;
+        });
+        return pref;
     }
 }
@@ -0,0 +1,42 @@
+/*
+ * Copyright (C) 2025 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lineageos.settings.touchsampling;
+
+import android.content.SharedPreferences;
+import android.util.ArraySet;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Snapshot of the touch sampling preferences.
+ */
+final class TouchSamplingSettings {
+    static final String KEY_AUTO_ENABLE_APPS = "htsr_auto_enable_selected_apps";
+
+    static final Set<String> KEYS = new ArraySet<>(Arrays.asList(
+            TouchSamplingSettingsFragment.HTSR_STATE,
+            KEY_AUTO_ENABLE_APPS));
+
+    final boolean mainEnabled;
+    final boolean autoEnableApps;
+
+    TouchSamplingSettings(SharedPreferences prefs) {
+        mainEnabled = prefs.getBoolean(TouchSamplingSettingsFragment.HTSR_STATE, false);
+        autoEnableApps = prefs.getBoolean(KEY_AUTO_ENABLE_APPS, true);
+    }
+}
@@ -33,8 +33,12 @@ import androidx.preference.Preference.OnPreferenceChangeListener;
 import androidx.preference.PreferenceFragment;
 import androidx.preference.SwitchPreferenceCompat;
 
+import com.android.internal.os.BackgroundThread;
+
+import org.lineageos.settings.PartsService;
 import org.lineageos.settings.R;
 import org.lineageos.settings.touchsampling.TouchSamplingUtils;
+import org.lineageos.settings.utils.AppInfoCache;
 import org.lineageos.settings.utils.FileUtils;
 
 public class TouchSamplingSettingsFragment extends PreferenceFragment implements Preference.OnPreferenceChangeListener {
@@ -82,10 +86,13 @@ public class TouchSamplingSettingsFragment extends PreferenceFragment implements
             });
         }
 
-        // Start service if main toggle or auto-enable for selected apps is ON
-        if (htsrEnabled || autoEnableSelectedApps) {
-            startTouchSamplingService(true);
-        }
+        // The feature follows the preferences, just make sure its host is running
+        PartsService.startService(getActivity());
+
+        // Have app labels and icons ready before the per-app screen is opened
+        final Context appContext = getActivity().getApplicationContext();
+        BackgroundThread.getHandler().post(() -> AppInfoCache.getInstance(appContext)
+                .preload(TouchSamplingPerAppConfigFragment.getConfigurableApps(appContext)));
     }
 
     @Override
@@ -101,26 +108,13 @@ public class TouchSamplingSettingsFragment extends PreferenceFragment implements
         if (HTSR_ENABLE_KEY.equals(preference.getKey())) {
             boolean isEnabled = (Boolean) newValue;
             mPrefs.edit().putBoolean(HTSR_STATE, isEnabled).apply();
-            startTouchSamplingService(isEnabled);
         } else if ("htsr_auto_enable_selected_apps".equals(preference.getKey())) {
             boolean isAutoEnableSelectedApps = (Boolean) newValue;
             mPrefs.edit().putBoolean("htsr_auto_enable_selected_apps", isAutoEnableSelectedApps).apply();
-            // Reapply the service state
-            boolean mainEnabled = mPrefs.getBoolean(HTSR_STATE, false);
-            startTouchSamplingService(mainEnabled || isAutoEnableSelectedApps);
         }
         return true;
     }
 
-    private void startTouchSamplingService(boolean enable) {
-        Intent serviceIntent = new Intent(getActivity(), TouchSamplingService.class);
-        if (enable) {
-            getActivity().startService(serviceIntent);
-        } else {
-            getActivity().stopService(serviceIntent);
-        }
-    }
-
     @Override
     public boolean onOptionsItemSelected(MenuItem item) {
         if (item.getItemId() == android.R.id.home) {
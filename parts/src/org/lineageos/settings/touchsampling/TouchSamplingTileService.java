@@ -18,12 +18,12 @@
 package org.lineageos.settings.touchsampling;
 
 import android.content.Context;
-import android.content.Intent;
 import android.content.SharedPreferences;
 import android.graphics.drawable.Icon;
 import android.service.quicksettings.Tile;
 import android.service.quicksettings.TileService;
 
+import org.lineageos.settings.PartsService;
 import org.lineageos.settings.R;
 
 public class TouchSamplingTileService extends TileService {
@@ -39,13 +39,8 @@ public class TouchSamplingTileService extends TileService {
         SharedPreferences prefs = getSharedPreferences(TouchSamplingSettingsFragment.SHAREDHTSR, Context.MODE_PRIVATE);
         boolean enabled = prefs.getBoolean(TouchSamplingSettingsFragment.HTSR_STATE, false);
         prefs.edit().putBoolean(TouchSamplingSettingsFragment.HTSR_STATE, !enabled).apply();
-        // Start or stop the service as needed
-        Intent serviceIntent = new Intent(this, TouchSamplingService.class);
-        if (!enabled) {
-            startService(serviceIntent);
-        } else {
-            stopService(serviceIntent);
-        }
+        // The feature follows the preference, just make sure its host is running
+        PartsService.startService(this);
         updateTileState();
     }
 
@@ -16,26 +16,10 @@
 
 package org.lineageos.settings.touchsampling;
 
-import android.app.ActivityManager;
-import android.content.Context;
-import android.content.Intent;
-import android.content.pm.PackageManager;
-import android.content.SharedPreferences;
-import android.os.UserHandle;
-import android.provider.Settings;
 import android.util.Log;
-import androidx.preference.PreferenceManager;
 
-import org.lineageos.settings.touchsampling.TouchSamplingSettingsFragment;
 import org.lineageos.settings.utils.FileUtils;
-
-import java.util.List;
-import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
-import java.io.IOException;
-import java.io.BufferedReader;
-import java.io.FileReader;
+import org.lineageos.settings.utils.SysfsNode;
 
 public final class TouchSamplingUtils {
     private static final String TAG = "TouchSamplingUtils";
@@ -43,86 +27,88 @@ public final class TouchSamplingUtils {
     private static final String HTSR_FOCALTECH_FILE = "/sys/bus/spi/drivers/focaltech_ts/spi1.0/switch_report_rate";
     public static final String SCONFIG_FILE = "/sys/class/thermal/thermal_message/sconfig";
 
+    /* Probed in order, a device only has one of these controllers */
+    private static final String[] HTSR_NODES = { HTSR_FILE, HTSR_FOCALTECH_FILE };
+
+    private static TouchNode sNode;
+    private static boolean sProbed;
+
     /**
-     * Writes HTSR value to both Goodix and Focaltech nodes if they exist and are writable
+     * The report rate node of the touch controller and how it can be accessed.
      */
-    public static void writeHtsrValue(String value) {
-        // Try Goodix first
-        if (isFileWritable(HTSR_FILE)) {
-            try {
-                FileUtils.writeLine(HTSR_FILE, value);
-            } catch (Exception e) {
-                Log.w(TAG, "Failed to write to Goodix HTSR file: " + e.getMessage());
-            }
+    public static final class TouchNode {
+        public final String path;
+        public final boolean readable;
+        public final boolean writable;
+
+        TouchNode(String path, boolean readable, boolean writable) {
+            this.path = path;
+            this.readable = readable;
+            this.writable = writable;
         }
 
-        // Try Focaltech as fallback
-        if (isFileWritable(HTSR_FOCALTECH_FILE)) {
-            try {
-                FileUtils.writeLine(HTSR_FOCALTECH_FILE, value);
-            } catch (Exception e) {
-                Log.w(TAG, "Failed to write to Focaltech HTSR file: " + e.getMessage());
-            }
+        @Override
+        public String toString() {
+            return path + (readable ? " r" : " -") + (writable ? "w" : "-");
         }
     }
 
-    /**
-     * Checks if a file exists and is writable
-     */
-    private static boolean isFileWritable(String filePath) {
-        try {
-            File file = new File(filePath);
-            return file.exists() && file.canWrite();
-        } catch (Exception e) {
-            return false;
-        }
+    private TouchSamplingUtils() {
+        // This class is not supposed to be instantiated
     }
 
     /**
-     * Reads HTSR value from available nodes (Goodix first, then Focaltech)
+     * Returns the report rate node, probing for it on first use or after a
+     * failed access. Returns null if the device has none.
      */
-    public static String readHtsrValue() {
-        // Try Goodix first
-        try {
-            String value = FileUtils.readOneLine(HTSR_FILE);
-            if (value != null) {
-                return value;
-            }
-        } catch (Exception e) {
-            // Silent fallback
+    public static synchronized TouchNode getNode() {
+        if (!sProbed) {
+            sProbed = true;
+            sNode = probe();
         }
+        return sNode;
+    }
 
-        // Try Focaltech as fallback
-        try {
-            String value = FileUtils.readOneLine(HTSR_FOCALTECH_FILE);
-            if (value != null) {
-                return value;
-            }
-        } catch (Exception e) {
-            // Silent fallback
+    private static TouchNode probe() {
+        for (String path : HTSR_NODES) {
+            if (!FileUtils.fileExists(path)) continue;
+            final TouchNode node = new TouchNode(path, FileUtils.isFileReadable(path),
+                    FileUtils.isFileWritable(path));
+            Log.i(TAG, "Using touch report rate node " + node);
+            return node;
         }
-
+        Log.w(TAG, "No touch report rate node found");
         return null;
     }
 
-    public static void restoreSamplingValue(Context context) {
-        SharedPreferences sharedPref = context.getSharedPreferences(
-                TouchSamplingSettingsFragment.SHAREDHTSR, Context.MODE_PRIVATE);
-        int htsrState = sharedPref.getInt(TouchSamplingSettingsFragment.SHAREDHTSR, 0);
-        writeHtsrValue(Integer.toString(htsrState));
+    /**
+     * Forgets the probed node, so the next access probes again.
+     */
+    private static synchronized void invalidateNode(TouchNode node) {
+        if (sNode == node) {
+            sProbed = false;
+            sNode = null;
+        }
     }
 
     /**
-     * Returns the package name of the current foreground app.
+     * Writes the HTSR value to the touch controller node. If that fails the
+     * nodes are probed again and the write is retried once.
+     *
+     * @param force whether to write even if the value was the last one written,
+     *        e.g. when the driver may have reset the node
+     * @return true if the value was written or already there
      */
-    private static String getForegroundApp(Context context) {
-        ActivityManager am = (ActivityManager) context.getSystemService(Context.ACTIVITY_SERVICE);
-        if (am != null) {
-            List<ActivityManager.RunningTaskInfo> tasks = am.getRunningTasks(1);
-            if (tasks != null && !tasks.isEmpty() && tasks.get(0).topActivity != null) {
-                return tasks.get(0).topActivity.getPackageName();
+    public static boolean writeHtsrValue(String value, boolean force) {
+        for (int attempt = 0; attempt < 2; attempt++) {
+            final TouchNode node = getNode();
+            if (node == null || !node.writable) return false;
+            if (force) {
+                SysfsNode.get(node.path).invalidate();
             }
+            if (FileUtils.writeLine(node.path, value)) return true;
+            invalidateNode(node);
         }
-        return null;
+        return false;
     }
 }
@@ -17,7 +17,6 @@
 package org.lineageos.settings.turbocharging;
 
 import android.os.Bundle;
-import android.util.Log;
 import android.widget.Toast;
 
 import androidx.preference.ListPreference;
@@ -28,27 +27,11 @@ import androidx.preference.SwitchPreferenceCompat;
 
 import com.android.settingslib.widget.MainSwitchPreference;
 
+import org.lineageos.settings.Constants;
 import org.lineageos.settings.R;
 
-import java.io.BufferedWriter;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.lang.reflect.Method;
-
 public class TurboChargingFragment extends PreferenceFragment implements Preference.OnPreferenceChangeListener {
 
-    private static final String TAG = "TurboChargingFragment";
-
-    private static final String PROP_TURBO_CURRENT = "persist.sys.turbo_charge_current";
-    private static final String DEFAULT_OFF_VALUE = "6000000";
-    private static final String DEFAULT_ON_VALUE = "9750000";
-
-    private static final String PREF_TURBO_ENABLED = "turbo_enable";
-    private static final String PREF_SPORTS_MODE = "sports_mode";
-    private static final String PREF_TURBO_CURRENT = "turbo_current";
-
-    private static final String SPORTS_MODE_NODE = "/sys/class/qcom-battery/smart_chg";
-
     private MainSwitchPreference mTurboEnabled;
     private SwitchPreferenceCompat mSportsMode;
     private ListPreference mTurboCurrent;
@@ -57,15 +40,15 @@ public class TurboChargingFragment extends PreferenceFragment implements Prefere
     public void onCreatePreferences(Bundle savedInstanceState, String rootKey) {
         setPreferencesFromResource(R.xml.turbocharging, rootKey);
 
-        mTurboEnabled = (MainSwitchPreference) findPreference(PREF_TURBO_ENABLED);
+        mTurboEnabled = (MainSwitchPreference) findPreference(Constants.KEY_TURBO_ENABLE);
         mTurboEnabled.setOnPreferenceChangeListener(this);
 
-        mSportsMode = (SwitchPreferenceCompat) findPreference(PREF_SPORTS_MODE);
+        mSportsMode = (SwitchPreferenceCompat) findPreference(Constants.KEY_SPORTS_MODE);
         mSportsMode.setOnPreferenceChangeListener(this);
 
         mSportsMode.setEnabled(mTurboEnabled.isChecked());
 
-        mTurboCurrent = (ListPreference) findPreference(PREF_TURBO_CURRENT);
+        mTurboCurrent = (ListPreference) findPreference(Constants.KEY_TURBO_CURRENT);
         mTurboCurrent.setOnPreferenceChangeListener(this);
         mTurboCurrent.setEnabled(mTurboEnabled.isChecked());
     }
@@ -77,11 +60,9 @@ public class TurboChargingFragment extends PreferenceFragment implements Prefere
             mTurboCurrent.setEnabled(turboEnabled);
             if (!turboEnabled) {
                 mSportsMode.setChecked(false);
-                updateSportsMode(false);
             }
             mSportsMode.setEnabled(turboEnabled);
 
-            updateChargeCurrent();
             Toast.makeText(getActivity(),
                     turboEnabled ? getString(R.string.toast_turbo_on) : getString(R.string.toast_turbo_off),
                     Toast.LENGTH_SHORT).show();
@@ -89,7 +70,6 @@ public class TurboChargingFragment extends PreferenceFragment implements Prefere
 
         } else if (preference == mSportsMode) {
             boolean sportsEnabled = (boolean) newValue;
-            updateSportsMode(sportsEnabled);
             Toast.makeText(getActivity(),
                     sportsEnabled ? getString(R.string.toast_sports_on) : getString(R.string.toast_sports_off),
                     Toast.LENGTH_SHORT).show();
@@ -99,16 +79,13 @@ public class TurboChargingFragment extends PreferenceFragment implements Prefere
             String value = (String) newValue;
             PreferenceManager.getDefaultSharedPreferences(getActivity())
                     .edit()
-                    .putString(PREF_TURBO_CURRENT, value)
+                    .putString(Constants.KEY_TURBO_CURRENT, value)
                     .apply();
 
             if ("1800000".equals(value)) {
                 mSportsMode.setChecked(false);
-                updateSportsMode(false);
             }
 
-            updateChargeCurrent();
-
             CharSequence entry = mTurboCurrent.getEntries()[mTurboCurrent.findIndexOfValue(value)];
             String entryStr = entry.toString();
             if (entryStr.endsWith("W")) {
@@ -121,41 +98,4 @@ public class TurboChargingFragment extends PreferenceFragment implements Prefere
         }
         return false;
     }
-
-    private void updateChargeCurrent() {
-        boolean turboEnabled = PreferenceManager.getDefaultSharedPreferences(getActivity())
-                .getBoolean(PREF_TURBO_ENABLED, false);
-        String valueToSet = turboEnabled
-                ? PreferenceManager.getDefaultSharedPreferences(getActivity())
-                        .getString(PREF_TURBO_CURRENT, DEFAULT_ON_VALUE)
-                : DEFAULT_OFF_VALUE;
-        Log.i(TAG, "Setting System property " + PROP_TURBO_CURRENT + " to: " + valueToSet);
-        setChargingProperty(valueToSet);
-    }
-
-    private void setChargingProperty(String value) {
-        try {
-            Class<?> sp = Class.forName("android.os.SystemProperties");
-            Method setProp = sp.getMethod("set", String.class, String.class);
-            setProp.invoke(null, PROP_TURBO_CURRENT, value);
-            Log.i(TAG, "System property " + PROP_TURBO_CURRENT + " set to " + value);
-        } catch (Exception e) {
-            Log.e(TAG, "Failed to set property " + PROP_TURBO_CURRENT, e);
-        }
-    }
-
-    private void updateSportsMode(boolean enabled) {
-        String value = enabled ? "9" : "8";
-        Log.i(TAG, "Updating Sports Mode node " + SPORTS_MODE_NODE + " to: " + value);
-        writeSportsMode(value);
-    }
-
-    private void writeSportsMode(String value) {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(SPORTS_MODE_NODE))) {
-            writer.write(value);
-            Log.i(TAG, "Sports Mode node updated to " + value);
-        } catch (IOException e) {
-            Log.e(TAG, "Failed to update Sports Mode node", e);
-        }
-    }
 }
@@ -16,26 +16,20 @@
 
 package org.lineageos.settings.turbocharging;
 
-import android.content.SharedPreferences;
 import android.service.quicksettings.Tile;
 import android.service.quicksettings.TileService;
 import android.widget.Toast;
 
-import androidx.preference.PreferenceManager;
-
 import org.lineageos.settings.R;
+import org.lineageos.settings.charging.ChargingPolicy;
 
 public class TurboChargingTile extends TileService {
 
-    private static final String PREF_TURBO_ENABLED = "turbo_enable";
-
     @Override
     public void onClick() {
-        SharedPreferences prefs = PreferenceManager.getDefaultSharedPreferences(this);
-        boolean turboEnabled = prefs.getBoolean(PREF_TURBO_ENABLED, false);
-        boolean newState = !turboEnabled;
-        prefs.edit().putBoolean(PREF_TURBO_ENABLED, newState).apply();
-        TurboChargingUtil.applyTurboSetting(this);
+        ChargingPolicy policy = ChargingPolicy.getInstance(this);
+        boolean newState = !policy.isTurboEnabled();
+        policy.setTurboEnabled(newState);
         updateTileState();
         Toast.makeText(this,
                 newState ? getString(R.string.toast_turbo_on) : getString(R.string.toast_turbo_off),
@@ -51,9 +45,7 @@ public class TurboChargingTile extends TileService {
     private void updateTileState() {
         Tile tile = getQsTile();
         if (tile == null) return;
-        boolean turboEnabled = PreferenceManager
-                .getDefaultSharedPreferences(this)
-                .getBoolean(PREF_TURBO_ENABLED, false);
+        boolean turboEnabled = ChargingPolicy.getInstance(this).isTurboEnabled();
         tile.setState(turboEnabled ? Tile.STATE_ACTIVE : Tile.STATE_INACTIVE);
         tile.updateTile();
     }
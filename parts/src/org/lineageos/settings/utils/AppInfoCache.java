@@ -0,0 +1,134 @@
+/*
+ * Copyright (C) 2025 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lineageos.settings.utils;
+
+import android.content.BroadcastReceiver;
+import android.content.Context;
+import android.content.Intent;
+import android.content.IntentFilter;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.drawable.Drawable;
+import android.net.Uri;
+import android.util.LruCache;
+
+import com.android.internal.os.BackgroundThread;
+
+import java.util.List;
+
+/**
+ * Process wide cache of app labels and icons for per-app screens.
+ *
+ * Icons are kept as bitmaps downscaled to the launcher icon size. The cache
+ * is bounded by the memory these take and evicts the least recently used
+ * apps first. Entries are keyed by package and only valid for the version
+ * they were loaded from, and are dropped when the package changes.
+ */
+public final class AppInfoCache {
+
+    private static AppInfoCache sInstance;
+
+    public static final class Entry {
+        public final CharSequence label;
+        public final Bitmap icon;
+        final long versionCode;
+
+        Entry(CharSequence label, Bitmap icon, long versionCode) {
+            this.label = label;
+            this.icon = icon;
+            this.versionCode = versionCode;
+        }
+    }
+
+    private final PackageManager mPm;
+    private final int mIconSize;
+    private final LruCache<String, Entry> mCache;
+
+    private final BroadcastReceiver mPackageReceiver = new BroadcastReceiver() {
+        @Override
+        public void onReceive(Context context, Intent intent) {
+            final Uri data = intent.getData();
+            if (data != null) {
+                mCache.remove(data.getSchemeSpecificPart());
+            }
+        }
+    };
+
+    private AppInfoCache(Context context) {
+        mPm = context.getPackageManager();
+        mIconSize = context.getResources().getDimensionPixelSize(android.R.dimen.app_icon_size);
+        // An eighth of the heap, but no more than needed for a few hundred icons
+        final int maxBytes = (int) Math.min(Runtime.getRuntime().maxMemory() / 8,
+                400L * mIconSize * mIconSize * 4);
+        mCache = new LruCache<String, Entry>(maxBytes) {
+            @Override
+            protected int sizeOf(String packageName, Entry entry) {
+                return entry.icon.getAllocationByteCount() + entry.label.length() * 2;
+            }
+        };
+
+        final IntentFilter filter = new IntentFilter();
+        filter.addAction(Intent.ACTION_PACKAGE_ADDED);
+        filter.addAction(Intent.ACTION_PACKAGE_CHANGED);
+        filter.addAction(Intent.ACTION_PACKAGE_REMOVED);
+        filter.addDataScheme("package");
+        context.registerReceiver(mPackageReceiver, filter, null, BackgroundThread.getHandler());
+    }
+
+    public static synchronized AppInfoCache getInstance(Context context) {
+        if (sInstance == null) {
+            sInstance = new AppInfoCache(context.getApplicationContext());
+        }
+        return sInstance;
+    }
+
+    /**
+     * Returns the label and icon of the given package, loading them if they
+     * are not cached for its current version. May block, don't call it on
+     * the main thread.
+     */
+    public Entry get(PackageInfo info) {
+        final Entry cached = mCache.get(info.packageName);
+        if (cached != null && cached.versionCode == info.getLongVersionCode()) {
+            return cached;
+        }
+        final Entry entry = new Entry(info.applicationInfo.loadLabel(mPm).toString(),
+                toBitmap(info.applicationInfo.loadIcon(mPm)), info.getLongVersionCode());
+        mCache.put(info.packageName, entry);
+        return entry;
+    }
+
+    /**
+     * Loads the given packages into the cache ahead of time. May block, don't
+     * call it on the main thread.
+     */
+    public void preload(List<PackageInfo> packages) {
+        for (PackageInfo info : packages) {
+            get(info);
+        }
+    }
+
+    private Bitmap toBitmap(Drawable drawable) {
+        final Bitmap bitmap = Bitmap.createBitmap(mIconSize, mIconSize, Bitmap.Config.ARGB_8888);
+        final Canvas canvas = new Canvas(bitmap);
+        drawable.setBounds(0, 0, mIconSize, mIconSize);
+        drawable.draw(canvas);
+        return bitmap;
+    }
+}
@@ -18,13 +18,9 @@ package org.lineageos.settings.utils;
 
 import android.util.Log;
 
-import java.io.BufferedReader;
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileReader;
-import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.NoSuchFileException;
 
 public final class FileUtils {
     private static final String TAG = "FileUtils";
@@ -35,64 +31,48 @@ public final class FileUtils {
 
     /**
      * Reads the first line of text from the given file.
-     * Reference {@link BufferedReader#readLine()} for clarification on what a line is
+     * The file is kept open through {@link SysfsNode} for subsequent reads.
      *
      * @return the read line contents, or null on failure
      */
     public static String readOneLine(String fileName) {
-        String line = null;
-        BufferedReader reader = null;
-
         try {
-            reader = new BufferedReader(new FileReader(fileName), 512);
-            line = reader.readLine();
-        } catch (FileNotFoundException e) {
+            return SysfsNode.get(fileName).readLine();
+        } catch (NoSuchFileException e) {
             Log.w(TAG, "No such file " + fileName + " for reading", e);
         } catch (IOException e) {
             Log.e(TAG, "Could not read from file " + fileName, e);
-        } finally {
-            try {
-                if (reader != null) {
-                    reader.close();
-                }
-            } catch (IOException e) {
-                // Ignored, not much we can do anyway
-            }
         }
-
-        return line;
+        return null;
     }
 
     /**
-     * Writes the given value into the given file
+     * Writes the given value into the given file.
+     * Nothing is written if the value matches the last one written successfully.
      *
      * @return true on success, false on failure
      */
     public static boolean writeLine(String fileName, String value) {
-        BufferedWriter writer = null;
-
         try {
-            writer = new BufferedWriter(new FileWriter(fileName));
-            writer.write(value);
-        } catch (FileNotFoundException e) {
+            SysfsNode.get(fileName).write(value);
+        } catch (NoSuchFileException e) {
             Log.w(TAG, "No such file " + fileName + " for writing", e);
             return false;
         } catch (IOException e) {
             Log.e(TAG, "Could not write to file " + fileName, e);
             return false;
-        } finally {
-            try {
-                if (writer != null) {
-                    writer.close();
-                }
-            } catch (IOException e) {
-                // Ignored, not much we can do anyway
-            }
         }
-
         return true;
     }
 
+    /**
+     * Queues a write of the given value into the given file on the
+     * {@link HardwareExecutor}. A pending write to the same file is replaced.
+     */
+    public static void writeLineAsync(String fileName, String value) {
+        HardwareExecutor.execute(fileName, () -> writeLine(fileName, value));
+    }
+
     /**
      * Checks whether the given file exists
      *
@@ -0,0 +1,190 @@
+/*
+ * Copyright (C) 2025 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lineageos.settings.utils;
+
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.Looper;
+import android.os.Process;
+import android.os.SystemClock;
+import android.util.Log;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Iterator;
+
+/**
+ * Serialized background queue for all blocking hardware commands, i.e. sysfs
+ * writes and HAL binder calls.
+ *
+ * Commands run one at a time in submission order on a single worker thread.
+ * Commands submitted with a key replace a still pending command with the same
+ * key, keeping its place in the queue. Submitting never blocks, callers
+ * include the main thread. When the queue is full the oldest unkeyed command
+ * is dropped, keyed commands are never dropped as their number is bounded by
+ * their hardware targets.
+ */
+public final class HardwareExecutor {
+    private static final String TAG = "HardwareExecutor";
+    private static final boolean DEBUG = false;
+
+    private static final int MAX_PENDING = 64;
+    private static final long SLOW_COMMAND_MS = 50;
+
+    private static final Object sLock = new Object();
+    private static final ArrayDeque<Command> sQueue = new ArrayDeque<>();
+    private static final HashMap<String, Command> sPendingByKey = new HashMap<>();
+
+    private static HandlerThread sThread;
+    private static Handler sHandler;
+    private static boolean sRunScheduled;
+
+    private static final Runnable sRunNext = HardwareExecutor::runNext;
+
+    private HardwareExecutor() {
+        // This class is not supposed to be instantiated
+    }
+
+    private static final class Command {
+        final String key;
+        Runnable runnable;
+
+        Command(String key, Runnable runnable) {
+            this.key = key;
+            this.runnable = runnable;
+        }
+    }
+
+    /**
+     * Returns the looper of the hardware worker thread.
+     */
+    public static Looper getLooper() {
+        return getHandler().getLooper();
+    }
+
+    /**
+     * Returns a handler on the hardware worker thread.
+     */
+    public static Handler getHandler() {
+        synchronized (sLock) {
+            if (sHandler == null) {
+                sThread = new HandlerThread(TAG, Process.THREAD_PRIORITY_FOREGROUND);
+                sThread.start();
+                sHandler = new Handler(sThread.getLooper());
+            }
+            return sHandler;
+        }
+    }
+
+    /**
+     * Queues a command.
+     */
+    public static void execute(Runnable command) {
+        execute(null, command);
+    }
+
+    /**
+     * Queues a command, replacing any pending command with the same key.
+     *
+     * @param key identifies the hardware target, e.g. a node path, or null
+     */
+    public static void execute(String key, Runnable command) {
+        final Handler handler = getHandler();
+        synchronized (sLock) {
+            if (key != null) {
+                final Command pending = sPendingByKey.get(key);
+                if (pending != null) {
+                    if (DEBUG) Log.d(TAG, "Coalescing " + key);
+                    pending.runnable = command;
+                    return;
+                }
+            }
+            if (sQueue.size() >= MAX_PENDING) {
+                dropOldestUnkeyed();
+            }
+            enqueue(handler, key, command);
+        }
+    }
+
+    /* Called with sLock held */
+    private static void dropOldestUnkeyed() {
+        final Iterator<Command> it = sQueue.iterator();
+        while (it.hasNext()) {
+            if (it.next().key == null) {
+                it.remove();
+                Log.e(TAG, "Queue full, dropped the oldest unkeyed command");
+                return;
+            }
+        }
+    }
+
+    /* Called with sLock held */
+    private static void enqueue(Handler handler, String key, Runnable command) {
+        final Command cmd = new Command(key, command);
+        sQueue.add(cmd);
+        if (key != null) {
+            sPendingByKey.put(key, cmd);
+        }
+        if (!sRunScheduled) {
+            sRunScheduled = true;
+            handler.post(sRunNext);
+        }
+    }
+
+    /**
+     * Queues a command after the given delay.
+     */
+    public static void executeDelayed(String key, Runnable command, long delayMillis) {
+        getHandler().postDelayed(() -> execute(key, command), delayMillis);
+    }
+
+    private static void runNext() {
+        final Command cmd;
+        synchronized (sLock) {
+            cmd = sQueue.poll();
+            if (cmd == null) {
+                sRunScheduled = false;
+                return;
+            }
+            if (cmd.key != null) {
+                sPendingByKey.remove(cmd.key);
+            }
+        }
+
+        final long start = SystemClock.uptimeMillis();
+        try {
+            cmd.runnable.run();
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Command " + cmd.key + " failed", e);
+        }
+        final long duration = SystemClock.uptimeMillis() - start;
+        if (duration >= SLOW_COMMAND_MS) {
+            Log.w(TAG, "Command " + cmd.key + " took " + duration + "ms");
+        } else if (DEBUG) {
+            Log.d(TAG, "Command " + cmd.key + " took " + duration + "ms");
+        }
+
+        // One command per message, so other work on this looper is not starved
+        synchronized (sLock) {
+            if (sQueue.isEmpty()) {
+                sRunScheduled = false;
+            } else {
+                sHandler.post(sRunNext);
+            }
+        }
+    }
+}
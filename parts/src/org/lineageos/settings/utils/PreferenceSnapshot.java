@@ -0,0 +1,91 @@
+/*
+ * Copyright (C) 2025 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lineageos.settings.utils;
+
+import android.content.SharedPreferences;
+
+import java.util.Set;
+
+/**
+ * Immutable, typed view of a feature's preferences.
+ *
+ * The snapshot is built once and then rebuilt only when one of the given
+ * keys changes, and published with a single volatile write. Readers on any
+ * thread get a consistent set of values without touching the preferences.
+ *
+ * @param <T> the immutable settings type built from the preferences
+ */
+public final class PreferenceSnapshot<T> {
+
+    public interface Factory<T> {
+        T create(SharedPreferences prefs);
+    }
+
+    public interface OnChangedListener<T> {
+        /** Called on the thread that delivered the preference change. */
+        void onSnapshotChanged(T snapshot);
+    }
+
+    private final SharedPreferences mPrefs;
+    private final Set<String> mKeys;
+    private final Factory<T> mFactory;
+    private volatile OnChangedListener<T> mListener;
+    private volatile T mSnapshot;
+
+    /* Kept in a field, preferences only hold weak references to listeners */
+    private final SharedPreferences.OnSharedPreferenceChangeListener mPrefListener =
+            (prefs, key) -> {
+                // A null key means the preferences were cleared
+                if (key != null && !mKeys.contains(key)) return;
+                final T snapshot = mFactory.create(prefs);
+                mSnapshot = snapshot;
+                final OnChangedListener<T> listener = mListener;
+                if (listener != null) {
+                    listener.onSnapshotChanged(snapshot);
+                }
+            };
+
+    /**
+     * @param keys the preference keys the snapshot is built from
+     */
+    public PreferenceSnapshot(SharedPreferences prefs, Set<String> keys, Factory<T> factory) {
+        mPrefs = prefs;
+        mKeys = keys;
+        mFactory = factory;
+        mSnapshot = factory.create(prefs);
+        prefs.registerOnSharedPreferenceChangeListener(mPrefListener);
+    }
+
+    public T get() {
+        return mSnapshot;
+    }
+
+    /**
+     * Sets the listener told about new snapshots, or null to remove it.
+     */
+    public void setListener(OnChangedListener<T> listener) {
+        mListener = listener;
+    }
+
+    /**
+     * Stops following the preferences, the last snapshot stays available.
+     */
+    public void release() {
+        mListener = null;
+        mPrefs.unregisterOnSharedPreferenceChangeListener(mPrefListener);
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (C) 2025 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lineageos.settings.utils;
+
+import android.os.SystemProperties;
+import android.util.ArrayMap;
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.Objects;
+
+/**
+ * Typed system property access with change listeners.
+ *
+ * Calls {@link SystemProperties} directly, we build against platform APIs.
+ * Listeners of a property are told about changes made through {@link #set}
+ * as well as about changes reported by the system through
+ * {@link SystemProperties#addChangeCallback}. They are always called on the
+ * {@link HardwareExecutor} thread.
+ */
+public final class PropertyUtils {
+    private static final String TAG = "PropertyUtils";
+
+    public interface OnPropertyChangedListener {
+        void onPropertyChanged(String key, String value);
+    }
+
+    private static final class Watched {
+        final ArrayList<OnPropertyChangedListener> listeners = new ArrayList<>();
+        String value;
+    }
+
+    /* key -> last seen value and listeners, guarded by sWatched */
+    private static final ArrayMap<String, Watched> sWatched = new ArrayMap<>();
+    private static boolean sChangeCallbackAdded;
+
+    private PropertyUtils() {
+        // This class is not supposed to be instantiated
+    }
+
+    public static String get(String key, String def) {
+        return SystemProperties.get(key, def);
+    }
+
+    public static int getInt(String key, int def) {
+        return SystemProperties.getInt(key, def);
+    }
+
+    public static long getLong(String key, long def) {
+        return SystemProperties.getLong(key, def);
+    }
+
+    public static boolean getBoolean(String key, boolean def) {
+        return SystemProperties.getBoolean(key, def);
+    }
+
+    /**
+     * Sets a property and notifies its listeners if the value changed.
+     *
+     * @return true if the property was set
+     */
+    public static boolean set(String key, String value) {
+        try {
+            SystemProperties.set(key, value);
+        } catch (RuntimeException e) {
+            Log.e(TAG, "Failed to set property " + key, e);
+            return false;
+        }
+        checkChanged(key);
+        return true;
+    }
+
+    /**
+     * Adds a listener for changes of the given property.
+     */
+    public static void addListener(String key, OnPropertyChangedListener listener) {
+        synchronized (sWatched) {
+            Watched watched = sWatched.get(key);
+            if (watched == null) {
+                watched = new Watched();
+                watched.value = SystemProperties.get(key);
+                sWatched.put(key, watched);
+            }
+            if (!watched.listeners.contains(listener)) {
+                watched.listeners.add(listener);
+            }
+            if (!sChangeCallbackAdded) {
+                sChangeCallbackAdded = true;
+                SystemProperties.addChangeCallback(PropertyUtils::checkAllChanged);
+            }
+        }
+    }
+
+    public static void removeListener(String key, OnPropertyChangedListener listener) {
+        synchronized (sWatched) {
+            final Watched watched = sWatched.get(key);
+            if (watched == null) return;
+            watched.listeners.remove(listener);
+            if (watched.listeners.isEmpty()) {
+                sWatched.remove(key);
+            }
+        }
+    }
+
+    private static void checkAllChanged() {
+        final ArrayList<String> keys;
+        synchronized (sWatched) {
+            keys = new ArrayList<>(sWatched.keySet());
+        }
+        for (String key : keys) {
+            checkChanged(key);
+        }
+    }
+
+    private static void checkChanged(String key) {
+        final ArrayList<OnPropertyChangedListener> listeners;
+        final String value;
+        synchronized (sWatched) {
+            final Watched watched = sWatched.get(key);
+            if (watched == null) return;
+            value = SystemProperties.get(key);
+            if (Objects.equals(value, watched.value)) return;
+            watched.value = value;
+            listeners = new ArrayList<>(watched.listeners);
+        }
+        HardwareExecutor.getHandler().post(() -> {
+            for (OnPropertyChangedListener listener : listeners) {
+                listener.onPropertyChanged(key, value);
+            }
+        });
+    }
+}
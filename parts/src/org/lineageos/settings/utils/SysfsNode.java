@@ -0,0 +1,167 @@
+/*
+ * Copyright (C) 2025 The LineageOS Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.lineageos.settings.utils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A kernel node kept open across accesses.
+ *
+ * Reads and writes are positional at offset 0, so the same file channel can be
+ * reused without reopening. Writes of the value that was last written
+ * successfully are skipped, unless a read in between returned something else.
+ */
+public final class SysfsNode {
+    private static final int BUFFER_SIZE = 512;
+
+    private static final ConcurrentHashMap<String, SysfsNode> sNodes = new ConcurrentHashMap<>();
+
+    private final String mPath;
+    private final ByteBuffer mReadBuffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    private FileChannel mReadChannel;
+    private FileChannel mWriteChannel;
+    private String mLastWritten;
+
+    private SysfsNode(String path) {
+        mPath = path;
+    }
+
+    /**
+     * Returns the shared node for the given path, creating it on first use.
+     */
+    public static SysfsNode get(String path) {
+        return sNodes.computeIfAbsent(path, SysfsNode::new);
+    }
+
+    public String getPath() {
+        return mPath;
+    }
+
+    /**
+     * Reads the first line of the node.
+     *
+     * @return the line without its terminator
+     * @throws IOException if the node can not be opened or read
+     */
+    public synchronized String readLine() throws IOException {
+        if (mReadChannel == null) {
+            mReadChannel = FileChannel.open(Paths.get(mPath), StandardOpenOption.READ);
+        }
+        mReadBuffer.clear();
+        try {
+            while (mReadBuffer.hasRemaining()) {
+                if (mReadChannel.read(mReadBuffer, mReadBuffer.position()) <= 0) break;
+            }
+        } catch (IOException e) {
+            closeRead();
+            throw e;
+        }
+
+        final byte[] data = mReadBuffer.array();
+        int end = 0;
+        while (end < mReadBuffer.position() && data[end] != '\n') {
+            end++;
+        }
+        final String line = new String(data, 0, end, StandardCharsets.UTF_8);
+        if (mLastWritten != null && !mLastWritten.equals(line)) {
+            // Changed behind our back, don't trust the cached value anymore
+            mLastWritten = null;
+        }
+        return line;
+    }
+
+    /**
+     * Writes the given value unless it is the last value written successfully.
+     *
+     * @return true if the value was written, false if it was skipped
+     * @throws IOException if the node can not be opened or written
+     */
+    public synchronized boolean write(String value) throws IOException {
+        if (value.equals(mLastWritten)) {
+            return false;
+        }
+        forceWrite(value);
+        return true;
+    }
+
+    /**
+     * Writes the given value even if it matches the last written one.
+     *
+     * @throws IOException if the node can not be opened or written
+     */
+    public synchronized void forceWrite(String value) throws IOException {
+        mLastWritten = null;
+        if (mWriteChannel == null) {
+            mWriteChannel = FileChannel.open(Paths.get(mPath), StandardOpenOption.WRITE);
+        }
+        final ByteBuffer buffer = ByteBuffer.wrap(value.getBytes(StandardCharsets.UTF_8));
+        try {
+            while (buffer.hasRemaining()) {
+                mWriteChannel.write(buffer, buffer.position());
+            }
+        } catch (IOException e) {
+            closeWrite();
+            throw e;
+        }
+        mLastWritten = value;
+    }
+
+    /**
+     * Forgets the last written value, so the next write always reaches the node.
+     */
+    public synchronized void invalidate() {
+        mLastWritten = null;
+    }
+
+    /**
+     * Closes any open channels. The node is reopened on next access.
+     */
+    public synchronized void close() {
+        closeRead();
+        closeWrite();
+        mLastWritten = null;
+    }
+
+    private void closeRead() {
+        if (mReadChannel != null) {
+            try {
+                mReadChannel.close();
+            } catch (IOException e) {
+                // Ignored, not much we can do anyway
+            }
+            mReadChannel = null;
+        }
+    }
+
+    private void closeWrite() {
+        if (mWriteChannel != null) {
+            try {
+                mWriteChannel.close();
+            } catch (IOException e) {
+                // Ignored, not much we can do anyway
+            }
+            mWriteChannel = null;
+        }
+    }
+}